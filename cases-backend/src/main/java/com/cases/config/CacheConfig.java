@@ -0,0 +1,36 @@
+package com.cases.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caffeine-backed Spring caches; size, TTL and stats recording come from
+ * spring.cache.caffeine.spec. Invalidation is local to each node, so the TTL
+ * bounds how stale another replica's copy can get.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String CUSTOMER_LIST = "customerList";
+    public static final String EXPENSE_CATEGORIES = "expenseCategories";
+    public static final String AGING_REPORT = "agingReport";
+
+    // Keyed by day and change counters, so entries never go stale; the TTL only clears out old days
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> agingReportCache() {
+        return cacheManager -> cacheManager.registerCustomCache(AGING_REPORT, Caffeine.newBuilder()
+                .maximumSize(16)
+                .expireAfterWrite(Duration.ofDays(1))
+                .recordStats()
+                .build());
+    }
+}
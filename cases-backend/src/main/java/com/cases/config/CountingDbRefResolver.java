@@ -0,0 +1,48 @@
+package com.cases.config;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+
+import com.mongodb.DBRef;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The default resolver, plus a counter of the DBRefs it had to fetch. Each
+ * one is an extra round trip that a snapshot field or lean projection would
+ * have avoided, so a rising count points at a read that still loads them.
+ */
+public class CountingDbRefResolver extends DefaultDbRefResolver {
+
+    private final MeterRegistry registry;
+
+    public CountingDbRefResolver(MongoDatabaseFactory mongoDbFactory, MeterRegistry registry) {
+        super(mongoDbFactory);
+        this.registry = registry;
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        counter(dbRef.getCollectionName()).increment();
+        return super.fetch(dbRef);
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> refs) {
+        if (!refs.isEmpty()) {
+            counter(refs.get(0).getCollectionName()).increment(refs.size());
+        }
+        return super.bulkFetch(refs);
+    }
+
+    private Counter counter(String collection) {
+        return Counter.builder("cases.mongo.dbref.resolutions")
+                .description("DBRefs resolved with an extra Mongo read")
+                .tag("collection", collection)
+                .register(registry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.cases.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes declared on the @Document models at startup, then checks
+ * that every declared index is really present. Creating an index that already
+ * exists is a no-op on the server; one that cannot be built (for example a
+ * unique index over duplicate data) is reported instead of being skipped silently.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cases.indexes.create-on-startup", havingValue = "true", matchIfMissing = true)
+public class IndexInitializer implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Value("${cases.indexes.fail-on-missing:false}")
+    private boolean failOnMissing;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        List<String> missing = new ArrayList<>();
+
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getType())) {
+                try {
+                    indexOps.createIndex(index);
+                } catch (DataAccessException e) {
+                    log.error("Could not create index {} on {}: {}", index.getIndexKeys(),
+                            entity.getCollection(), e.getMessage());
+                }
+            }
+
+            Set<String> present = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getType())) {
+                String name = index.getIndexOptions().getString("name");
+                if (name != null && !present.contains(name)) {
+                    missing.add(entity.getCollection() + "." + name);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            log.error("Declared indexes missing from the database: {}", missing);
+            if (failOnMissing) {
+                throw new IllegalStateException("Declared indexes missing from the database: " + missing);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.cases.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times every command the driver sends, tagged by collection and command
+ * name, and records how many documents each read handed back. Commands slower
+ * than cases.mongo.slow-query-threshold are logged with their filter or
+ * pipeline; a zero threshold turns the log off.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoCommandMetrics implements CommandListener {
+
+    private static final int MAX_DETAIL_LENGTH = 500;
+    private static final JsonWriterSettings DETAIL_JSON = JsonWriterSettings.builder()
+            .maxLength(MAX_DETAIL_LENGTH)
+            .build();
+
+    private final MeterRegistry registry;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${cases.mongo.slow-query-threshold:200ms}")
+    private Duration slowQueryThreshold;
+
+    private record Started(String collection, String detail) {
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        // The command document is only valid during this callback, so take what the other events need now
+        String detail = slowQueryThreshold.isZero() ? null : detailOf(command);
+        inFlight.put(event.getRequestId(), new Started(collectionOf(event.getCommandName(), command), detail));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        timer(started.collection(), event.getCommandName(), "success").record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        long returned = documentsReturned(event.getResponse());
+        if (returned >= 0) {
+            DistributionSummary.builder("cases.mongo.documents.returned")
+                    .description("Documents returned per Mongo read")
+                    .tag("collection", started.collection())
+                    .tag("command", event.getCommandName())
+                    .register(registry)
+                    .record(returned);
+        }
+        logIfSlow(started, event.getCommandName(), elapsedNanos, returned);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        timer(started.collection(), event.getCommandName(), "failed").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        logIfSlow(started, event.getCommandName(), elapsedNanos, -1);
+    }
+
+    private Timer timer(String collection, String command, String status) {
+        return Timer.builder("cases.mongo.commands")
+                .description("Mongo command latency")
+                .tag("collection", collection)
+                .tag("command", command)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private void logIfSlow(Started started, String command, long elapsedNanos, long returned) {
+        if (slowQueryThreshold.isZero() || elapsedNanos < slowQueryThreshold.toNanos()) {
+            return;
+        }
+        log.warn("Slow Mongo {} on {}: {} ms, {} documents returned, {}", command, started.collection(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), returned < 0 ? "no" : returned, started.detail());
+    }
+
+    // find, aggregate, count, ... name the collection as the command's value; getMore in its own field
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : "none";
+    }
+
+    // Filters and pipelines only (for updates and deletes, the q of each statement): update bodies
+    // and inserted documents carry customer data and can be any size.
+    // maxLength makes the writer stop there instead of rendering a large pipeline in full first.
+    private static String detailOf(BsonDocument command) {
+        BsonDocument detail = new BsonDocument();
+        for (String key : new String[] { "filter", "pipeline", "query" }) {
+            BsonValue value = command.get(key);
+            if (value != null) {
+                detail.put(key, value);
+                break;
+            }
+        }
+        for (String key : new String[] { "updates", "deletes" }) {
+            BsonValue statements = command.get(key);
+            if (statements != null && statements.isArray()) {
+                BsonArray filters = new BsonArray();
+                for (BsonValue statement : statements.asArray()) {
+                    if (statement.isDocument() && statement.asDocument().containsKey("q")) {
+                        filters.add(statement.asDocument().get("q"));
+                    }
+                }
+                detail.put(key, filters);
+            }
+        }
+        String json = detail.toJson(DETAIL_JSON);
+        return json.length() >= MAX_DETAIL_LENGTH ? json + "..." : json;
+    }
+
+    // Size of the returned cursor batch, 0 or 1 for findAndModify, -1 for commands that return no documents
+    private static long documentsReturned(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch", cursor.asDocument().get("nextBatch"));
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue value = response.get("value");
+        if (value != null) {
+            return value.isDocument() ? 1 : 0;
+        }
+        return -1;
+    }
+}
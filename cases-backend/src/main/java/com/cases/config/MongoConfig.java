@@ -1,9 +1,39 @@
 package com.cases.config;
 
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.cases.model.Money;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(Money.converters());
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MongoCommandMetrics commandMetrics) {
+        return settings -> settings.addCommandListener(commandMetrics);
+    }
+
+    // Same converter Boot would build, with a resolver that counts DBRef fetches
+    @Bean
+    public MappingMongoConverter mappingMongoConverter(MongoDatabaseFactory factory, MongoMappingContext context,
+            MongoCustomConversions conversions, MeterRegistry registry) {
+        MappingMongoConverter converter = new MappingMongoConverter(new CountingDbRefResolver(factory, registry),
+                context);
+        converter.setCustomConversions(conversions);
+        return converter;
+    }
 }
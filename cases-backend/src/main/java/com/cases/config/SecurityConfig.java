@@ -33,6 +33,7 @@ public class SecurityConfig {
         config.setAllowedOrigins(List.of("https://cases-demo.vercel.app", "http://localhost:3000")); // ✅ your Next.js origin
         config.setAllowedMethods(List.of("GET", "POST", "PATCH", "PUT", "DELETE"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("X-Result-Truncated", "Content-Disposition")); // capped bill listings, CSV file names
         config.setAllowCredentials(true); // Optional: only if you're using cookies/auth
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,12 +1,16 @@
 package com.cases.controller;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,14 +20,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cases.csv.CsvDownload;
+import com.cases.dto.BillBatchResponseDto;
+import com.cases.dto.BillFilterDto;
 import com.cases.dto.BillRequestDto;
 import com.cases.dto.BillResponseDto;
 import com.cases.dto.BillUpdateRequestDto;
+import com.cases.dto.PageDto;
 import com.cases.model.BillItem;
-import com.cases.repository.BillRepository;
+import com.cases.model.Money;
 import com.cases.service.BillService;
+import com.cases.service.InvoiceNumberAllocator;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -34,25 +45,112 @@ import lombok.RequiredArgsConstructor;
 public class BillController {
 
     private final BillService billService;
-    private final BillRepository billRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+
+    @Value("${cases.bills.max-filter-results:1000}")
+    private int maxFilterResults;
 
     @PostMapping
     public BillResponseDto createBill(@RequestBody BillRequestDto request) {
         return billService.createBill(request);
     }
 
+    @PostMapping("/batch")
+    public BillBatchResponseDto createBills(@RequestBody List<BillRequestDto> requests) {
+        return billService.createBills(requests);
+    }
+
+    // Date range only: every matching bill. Any other filter or a sort: an indexed query capped at
+    // cases.bills.max-filter-results, with X-Result-Truncated: true when more bills matched
     @GetMapping
     public ResponseEntity<List<BillResponseDto>> getAllBills(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) Integer invoiceFrom,
+            @RequestParam(required = false) Integer invoiceTo,
+            @RequestParam(required = false) String sort) {
+        BillFilterDto filter = BillFilterDto.builder()
+                .customerId(customerId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .minTotal(minTotal != null ? Money.ofRupees(minTotal) : null)
+                .maxTotal(maxTotal != null ? Money.ofRupees(maxTotal) : null)
+                .invoiceFrom(invoiceFrom)
+                .invoiceTo(invoiceTo)
+                .sort(sort)
+                .build();
+        if (filter.isEmpty()) {
+            return ResponseEntity.ok(billService.getAllBills(startDate, endDate));
+        }
+
+        List<BillResponseDto> bills = billService.findBills(filter, maxFilterResults);
+        boolean truncated = bills.size() > maxFilterResults;
+        return ResponseEntity.ok()
+                .header("X-Result-Truncated", String.valueOf(truncated))
+                .body(truncated ? bills.subList(0, maxFilterResults) : bills);
+    }
+
+    // ✅ Every bill matching the same filters as a CSV download, one row per bill, no cap
+    @GetMapping(params = { "format=csv", "!limit" })
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) Integer invoiceFrom,
+            @RequestParam(required = false) Integer invoiceTo,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        CsvDownload.parseDate("startDate", startDate);
+        CsvDownload.parseDate("endDate", endDate);
+        BillFilterDto filter = BillFilterDto.builder()
+                .customerId(customerId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .minTotal(minTotal != null ? Money.ofRupees(minTotal) : null)
+                .maxTotal(maxTotal != null ? Money.ofRupees(maxTotal) : null)
+                .invoiceFrom(invoiceFrom)
+                .invoiceTo(invoiceTo)
+                .sort(sort)
+                .build();
+        Query query = billService.billExportQuery(filter); // rejects a bad sort with a 400
+
+        return CsvDownload.of("bills.csv", request, csv -> {
+            csv.row("Invoice", "Date", "Due Date", "Customer", "Qty", "Grand Total");
+            billService.streamBills(query, bill -> csv.row(bill.getInvoiceNumber(), bill.getDate(),
+                    bill.getDueDate(), bill.getCustomerName(), bill.getTotalQty(), bill.getGrandTotal()));
+        });
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageDto<BillResponseDto>> getBillsPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
-        List<BillResponseDto> bills = billService.getAllBills(startDate, endDate);
-        return ResponseEntity.ok(bills);
+        return ResponseEntity.ok(billService.getBillsPage(limit, cursor, startDate, endDate));
     }
 
+    // ETag is the bill's version; a matching If-None-Match gets a 304 without loading the bill
     @GetMapping("/{id}")
-    public BillResponseDto getBillById(@PathVariable String id) {
-        return billService.getBillById(id)
+    public ResponseEntity<BillResponseDto> getBillById(@PathVariable String id, WebRequest request) {
+        Long version = billService.getVersion(id);
+        if (version == null) {
+            // Missing, or written before @Version and not migrated yet: served without an ETag, as customers are
+            return ResponseEntity.ok(billService.getBillById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Bill not found")));
+        }
+        String etag = "bill-" + id + "-v" + version;
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        BillResponseDto bill = billService.getBillById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Bill not found"));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(bill);
     }
 
     @GetMapping("/by-due-date")
@@ -81,10 +179,7 @@ public class BillController {
 
     @GetMapping("/next-invoice-number")
     public ResponseEntity<Integer> getNextInvoiceNumber() {
-        int nextInvoiceNumber = billRepository.findTopByOrderByInvoiceNumberDesc()
-                .map(b -> b.getInvoiceNumber() + 1)
-                .orElse(1001);
-        return ResponseEntity.ok(nextInvoiceNumber);
+        return ResponseEntity.ok(invoiceNumberAllocator.peek());
     }
 
 }
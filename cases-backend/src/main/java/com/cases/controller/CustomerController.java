@@ -1,7 +1,12 @@
 package com.cases.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,10 +15,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.cases.dto.CustomerRequestDto;
 import com.cases.dto.CustomerResponseDto;
+import com.cases.dto.CustomerSearchHitDto;
+import com.cases.dto.ImportResultDto;
+import com.cases.dto.PageDto;
+import com.cases.dto.VersionedDto;
+import com.cases.service.ChangeCounterService;
 import com.cases.service.CustomerService;
 
 import lombok.RequiredArgsConstructor;
@@ -32,17 +45,54 @@ public class CustomerController {
         return ResponseEntity.ok(response);
     }
 
-    // ✅ Get all customers
+    // ✅ Create customers from an uploaded CSV (name, phone, address); errors are reported per line
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResultDto> importCustomers(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(customerService.importCustomers(csv));
+        }
+    }
+
+    // ✅ Get all customers; the ETag is the customers change counter the served list was read at
     @GetMapping
-    public ResponseEntity<List<CustomerResponseDto>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<List<CustomerResponseDto>> getAllCustomers(WebRequest request) {
+        VersionedDto<List<CustomerResponseDto>> customers = customerService.getAllCustomers();
+        String etag = ChangeCounterService.etag(ChangeCounterService.CUSTOMERS, customers.getVersion());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(customers.getBody());
+    }
+
+    // ✅ Get customers one page at a time
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageDto<CustomerResponseDto>> getCustomersPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(customerService.getCustomersPage(limit, cursor));
+    }
+
+    // ✅ Type-ahead search on name or phone prefix
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerSearchHitDto>> searchCustomers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(customerService.searchCustomers(q, limit));
     }
 
-    // ✅ Get customer by ID
+    // ✅ Get customer by ID; the ETag is the version of the customer served
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponseDto> getCustomerById(@PathVariable String id) {
-        CustomerResponseDto customer = customerService.getCustomerById(id);
-        return ResponseEntity.ok(customer);
+    public ResponseEntity<CustomerResponseDto> getCustomerById(@PathVariable String id, WebRequest request) {
+        VersionedDto<CustomerResponseDto> customer = customerService.getCustomerById(id);
+        if (customer.getVersion() == null) {
+            return ResponseEntity.ok(customer.getBody()); // predates @Version: served without an ETag
+        }
+        String etag = "customer-" + id + "-v" + customer.getVersion();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(customer.getBody());
     }
 
     // ✅ Update customer
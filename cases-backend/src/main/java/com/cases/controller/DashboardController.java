@@ -0,0 +1,41 @@
+package com.cases.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cases.service.DashboardService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    // ✅ Sales, payments, expenses, bill count and receivables in one call
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            LocalDate start = null;
+            LocalDate end = null;
+
+            if (startDate != null && endDate != null) {
+                start = LocalDate.parse(startDate);
+                end = LocalDate.parse(endDate).plusDays(1);
+            }
+
+            return ResponseEntity.ok(dashboardService.getSummary(start, end));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error building dashboard summary: " + e.getMessage());
+        }
+    }
+}
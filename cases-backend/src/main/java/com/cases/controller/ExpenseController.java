@@ -1,9 +1,13 @@
 package com.cases.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,14 +17,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cases.csv.CsvDownload;
+import com.cases.dto.AmountTotalDto;
 import com.cases.dto.CreateExpenseCategoryDto;
 import com.cases.dto.CreateExpenseDto;
 import com.cases.dto.ExpenseCategoryWithExpensesDto;
+import com.cases.dto.ImportResultDto;
 import com.cases.model.Expense;
 import com.cases.model.ExpenseCategory;
-import com.cases.repository.ExpenseRepository;
 import com.cases.service.ExpenseService;
+import com.cases.service.TotalsService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,13 +40,22 @@ import lombok.RequiredArgsConstructor;
 public class ExpenseController {
 
     private final ExpenseService service;
-    private final ExpenseRepository expenseRepository;
+    private final TotalsService totalsService;
 
     @PostMapping
     public ResponseEntity<Expense> createExpense(@RequestBody CreateExpenseDto dto) {
         return ResponseEntity.ok(service.createExpense(dto));
     }
 
+    // ✅ Create expenses from an uploaded CSV (date, amount, description, categoryId or category)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResultDto> importExpenses(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(service.importExpenses(csv));
+        }
+    }
+
     @PostMapping("/categories")
     public ResponseEntity<ExpenseCategory> createCategory(@RequestBody CreateExpenseCategoryDto dto) {
         return ResponseEntity.ok(service.createCategory(dto));
@@ -57,24 +76,19 @@ public class ExpenseController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         try {
-            List<Expense> expenses;
+            LocalDate start = null;
+            LocalDate end = null;
 
             if (startDate != null && endDate != null) {
-                LocalDate start = LocalDate.parse(startDate);
-                LocalDate end = LocalDate.parse(endDate).plusDays(1);
-
-                expenses = expenseRepository.findByDateBetween(start, end);
-            } else {
-                expenses = expenseRepository.findAll();
+                start = LocalDate.parse(startDate);
+                end = LocalDate.parse(endDate).plusDays(1);
             }
 
-            double totalExpenses = expenses.stream()
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
+            AmountTotalDto total = totalsService.getExpenseTotal(start, end);
 
             return ResponseEntity.ok(Map.of(
-                    "totalExpenses", totalExpenses,
-                    "count", expenses.size()));
+                    "totalExpenses", total.getSum(),
+                    "count", total.getCount()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error calculating total expenses: " + e.getMessage());
         }
@@ -83,8 +97,28 @@ public class ExpenseController {
     @GetMapping("/categories/filter")
     public ResponseEntity<List<ExpenseCategoryWithExpensesDto>> getCategoriesWithFilteredExpenses(
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
-        return ResponseEntity.ok(service.getCategoriesWithFilteredExpenses(startDate, endDate));
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        return ResponseEntity.ok(service.getCategoriesWithFilteredExpenses(startDate, endDate, summaryOnly));
+    }
+
+    // ✅ Every expense in the range as a CSV download, oldest first, written while the cursor is read
+    @GetMapping(value = "/categories/filter", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            WebRequest request) {
+        LocalDate start = CsvDownload.parseDate("startDate", startDate);
+        LocalDate endDay = CsvDownload.parseDate("endDate", endDate);
+        LocalDate end = start != null && endDay != null ? endDay.plusDays(1) : null; // to make it inclusive
+        Map<String, String> categoryNames = service.getAllCategories().stream()
+                .collect(Collectors.toMap(ExpenseCategory::getId, ExpenseCategory::getName));
+
+        return CsvDownload.of("expenses.csv", request, csv -> {
+            csv.row("Date", "Category", "Description", "Amount");
+            service.streamExpenses(start, end, expense -> csv.row(expense.getDate(),
+                    categoryNames.get(expense.getCategoryId()), expense.getDescription(), expense.getAmount()));
+        });
     }
 
     @DeleteMapping("/{id}")
@@ -15,13 +15,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cases.csv.CsvDownload;
+import com.cases.dto.AmountTotalDto;
 import com.cases.dto.PaymentRequestDto;
 import com.cases.dto.PaymentResponseDto;
 import com.cases.model.Customer;
+import com.cases.model.Money;
 import com.cases.model.Transaction;
 import com.cases.repository.CustomerRepository;
 import com.cases.repository.TransactionRepository;
+import com.cases.service.BalanceCheckpointService;
+import com.cases.service.CustomerBalanceService;
+import com.cases.service.DailyRollupService;
+import com.cases.service.TotalsService;
+import com.cases.service.TransactionService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,11 +42,16 @@ public class PaymentController {
 
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final TotalsService totalsService;
+    private final TransactionService transactionService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final CustomerBalanceService customerBalanceService;
+    private final DailyRollupService dailyRollupService;
 
     @PostMapping
     public ResponseEntity<?> addPayment(@RequestBody PaymentRequestDto request) {
         try {
-            if (request.getCustomerId() == null || request.getAmount() <= 0) {
+            if (request.getCustomerId() == null || request.getAmount() == null || !request.getAmount().isPositive()) {
                 return ResponseEntity.badRequest().body("Customer ID and valid amount are required.");
             }
 
@@ -53,6 +68,8 @@ public class PaymentController {
 
             Transaction transaction = Transaction.builder()
                     .customer(customer)
+                    .customerId(customer.getId())
+                    .customerName(customer.getName())
                     .amount(request.getAmount())
                     .type("credit")
                     .description(request.getDescription() != null ? request.getDescription() : "Payment Received")
@@ -60,14 +77,15 @@ public class PaymentController {
                     .build();
 
             transactionRepository.save(transaction);
+            dailyRollupService.add(DailyRollupService.PAYMENTS, txnDate, request.getAmount());
 
-            customer.setBalance(customer.getBalance() + request.getAmount());
-            customerRepository.save(customer);
+            Money updatedBalance = customerBalanceService.applyDelta(customer.getId(), request.getAmount());
+            balanceCheckpointService.invalidateFrom(customer.getId(), txnDate);
 
             PaymentResponseDto response = new PaymentResponseDto(
                     "Payment recorded successfully.",
                     transaction,
-                    customer.getBalance(),
+                    updatedBalance,
                     customer.getId(),
                     customer.getName());
 
@@ -115,29 +133,29 @@ public class PaymentController {
             return ResponseEntity.status(404).body(Map.of("message", "Customer not found"));
         }
 
-        double oldAmount = payment.getAmount();
-        double newAmount = request.getAmount();
+        Money oldAmount = payment.getAmount();
+        Money newAmount = request.getAmount() != null ? request.getAmount() : oldAmount;
+        LocalDate oldDate = payment.getDate();
+
+        Money updatedBalance;
 
         // 🧠 Check if customer is updated
         if (request.getCustomerId() != null && !request.getCustomerId().equals(oldCustomer.getId())) {
-            // Restore balance of old customer
-            oldCustomer.setBalance(oldCustomer.getBalance() - oldAmount);
-            customerRepository.save(oldCustomer);
-
             // Set new customer
             Customer newCustomer = customerRepository.findById(request.getCustomerId())
                     .orElseThrow(() -> new RuntimeException("New customer not found"));
 
-            // Add balance to new customer
-            newCustomer.setBalance(newCustomer.getBalance() + newAmount);
-            customerRepository.save(newCustomer);
+            // Restore balance of old customer, add balance to new customer
+            customerBalanceService.applyDelta(oldCustomer.getId(), oldAmount.negate());
+            updatedBalance = customerBalanceService.applyDelta(newCustomer.getId(), newAmount);
 
             // Update payment's customer reference
             payment.setCustomer(newCustomer);
+            payment.setCustomerId(newCustomer.getId());
+            payment.setCustomerName(newCustomer.getName());
         } else {
             // Same customer → just update balance
-            oldCustomer.setBalance(oldCustomer.getBalance() - oldAmount + newAmount);
-            customerRepository.save(oldCustomer);
+            updatedBalance = customerBalanceService.applyDelta(oldCustomer.getId(), newAmount.minus(oldAmount));
         }
 
         // Update payment details
@@ -152,11 +170,15 @@ public class PaymentController {
         }
 
         transactionRepository.save(payment);
+        dailyRollupService.move(DailyRollupService.PAYMENTS, oldDate, oldAmount, payment.getDate(), newAmount);
+
+        balanceCheckpointService.invalidateFrom(oldCustomer.getId(), oldDate);
+        balanceCheckpointService.invalidateFrom(payment.getCustomerId(), payment.getDate());
 
         return ResponseEntity.ok(Map.of(
                 "message", "Payment updated successfully",
                 "payment", payment,
-                "updatedBalance", payment.getCustomer().getBalance()));
+                "updatedBalance", updatedBalance));
     }
 
     // ✅ GET Total Payments (with optional date filters)
@@ -165,25 +187,19 @@ public class PaymentController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
         try {
-            List<Transaction> creditTxns;
+            LocalDate start = null;
+            LocalDate end = null;
 
             if (startDate != null && endDate != null) {
-                LocalDate start = LocalDate.parse(startDate);
-                LocalDate end = LocalDate.parse(endDate).plusDays(1);
-
-                creditTxns = transactionRepository.findByTypeAndDateBetween("credit", start, end);
-
-            } else {
-                creditTxns = transactionRepository.findByType("credit");
+                start = LocalDate.parse(startDate);
+                end = LocalDate.parse(endDate).plusDays(1);
             }
 
-            double total = creditTxns.stream()
-                    .mapToDouble(Transaction::getAmount)
-                    .sum();
+            AmountTotalDto total = totalsService.getTransactionTotal("credit", start, end);
 
             return ResponseEntity.ok(Map.of(
-                    "totalPayment", total,
-                    "count", creditTxns.size()));
+                    "totalPayment", total.getSum(),
+                    "count", total.getCount()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error fetching total payments: " + e.getMessage());
         }
@@ -216,6 +232,41 @@ public class PaymentController {
         }
     }
 
+    // ✅ GET: All Payments as a CSV download, oldest first, written while the cursor is read
+    @GetMapping(value = "/all", params = { "format=csv", "!limit" })
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            WebRequest request) {
+        LocalDate start = CsvDownload.parseDate("startDate", startDate);
+        LocalDate endDay = CsvDownload.parseDate("endDate", endDate);
+        LocalDate end = start != null && endDay != null ? endDay.plusDays(1) : null; // Inclusive
+
+        return CsvDownload.of("payments.csv", request, csv -> {
+            csv.row("Date", "Customer", "Amount", "Description");
+            transactionService.streamTransactions("credit", start, end, payment -> csv.row(payment.getDate(),
+                    payment.getCustomerName(), payment.getAmount(), payment.getDescription()));
+        });
+    }
+
+    // ✅ GET: Payments one page at a time, newest first
+    @GetMapping(value = "/all", params = "limit")
+    public ResponseEntity<?> getPaymentsPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        LocalDate start = null;
+        LocalDate end = null;
+
+        if (startDate != null && !startDate.isBlank() && endDate != null && !endDate.isBlank()) {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate).plusDays(1); // Inclusive
+        }
+
+        return ResponseEntity.ok(transactionService.getTransactionsPage("credit", start, end, limit, cursor));
+    }
+
     // ✅ DELETE: Delete Payment & Adjust Customer Balance
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletePayment(@PathVariable String id) {
@@ -233,15 +284,16 @@ public class PaymentController {
         }
 
         // Balance Adjustment
-        customer.setBalance(customer.getBalance() - payment.getAmount());
-        customerRepository.save(customer);
+        Money updatedBalance = customerBalanceService.applyDelta(customer.getId(), payment.getAmount().negate());
 
         // Delete Payment
         transactionRepository.deleteById(id);
+        dailyRollupService.remove(DailyRollupService.PAYMENTS, payment.getDate(), payment.getAmount());
+        balanceCheckpointService.invalidateFrom(customer.getId(), payment.getDate());
 
         return ResponseEntity.ok(Map.of(
                 "message", "Payment deleted successfully",
-                "updatedBalance", customer.getBalance()));
+                "updatedBalance", updatedBalance));
     }
 
 }
@@ -0,0 +1,33 @@
+package com.cases.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cases.service.AgingReportService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final AgingReportService agingReportService;
+
+    // ✅ Receivables per customer in 0-30, 31-60, 61-90 and 90+ days past due (as of today by default)
+    @GetMapping("/aging")
+    public ResponseEntity<?> getAgingReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        try {
+            return ResponseEntity.ok(agingReportService.getAgingReport(asOf != null ? asOf : LocalDate.now()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error building aging report: " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.cases.controller;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -10,8 +9,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.cases.model.Transaction;
-import com.cases.repository.TransactionRepository;
+import com.cases.dto.AmountTotalDto;
+import com.cases.service.TotalsService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,7 +19,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class SalesController {
 
-    private final TransactionRepository transactionRepository;
+    private final TotalsService totalsService;
 
     // ✅ GET Total Sales (All debit-type transactions)
     @GetMapping("/total")
@@ -29,24 +28,19 @@ public class SalesController {
             @RequestParam(required = false) String endDate
     ) {
         try {
-            List<Transaction> debitTxns;
+            LocalDate start = null;
+            LocalDate end = null;
 
-        if (startDate != null && endDate != null) {
-            LocalDate start = LocalDate.parse(startDate);
-            LocalDate end = LocalDate.parse(endDate).plusDays(1);
-
-            debitTxns = transactionRepository.findByTypeAndDateBetween("debit", start, end);
-            } else {
-                debitTxns = transactionRepository.findByType("debit");
+            if (startDate != null && endDate != null) {
+                start = LocalDate.parse(startDate);
+                end = LocalDate.parse(endDate).plusDays(1);
             }
 
-            double totalSales = debitTxns.stream()
-                    .mapToDouble(Transaction::getAmount)
-                    .sum();
+            AmountTotalDto total = totalsService.getTransactionTotal("debit", start, end);
 
             return ResponseEntity.ok(Map.of(
-                    "totalSales", totalSales,
-                    "count", debitTxns.size()
+                    "totalSales", total.getSum(),
+                    "count", total.getCount()
             ));
 
         } catch (Exception e) {
@@ -1,16 +1,28 @@
 package com.cases.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cases.csv.CsvDownload;
 import com.cases.dto.StatementTransactionDTO;
+import com.cases.service.ChangeCounterService;
 import com.cases.service.StatementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,19 +31,77 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/customers")
 public class StatementController {
 
+    private static final int FLUSH_EVERY = 256;
+
     private final StatementService statementService;
+    private final ChangeCounterService changeCounters;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}/statement")
     public ResponseEntity<List<StatementTransactionDTO>> getCustomerStatement(
             @PathVariable String id,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+            @RequestParam(required = false) String endDate,
+            WebRequest request) {
         try {
+            // Every ledger write for the customer bumps this counter, so a match means the statement is unchanged
+            String etag = changeCounters.etag(ChangeCounterService.ledger(id));
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<StatementTransactionDTO> statement = statementService.getCustomerStatement(id, startDate, endDate);
-            return ResponseEntity.ok(statement);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(statement);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // ✅ Same entries as /statement as a CSV download, written while the cursor is read
+    @GetMapping(value = "/{id}/statement", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> exportCustomerStatement(
+            @PathVariable String id,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            WebRequest request) {
+        CsvDownload.parseDate("startDate", startDate);
+        CsvDownload.parseDate("endDate", endDate);
+
+        return CsvDownload.of("statement-" + id + ".csv", request, csv -> {
+            csv.row("Date", "Particulars", "Invoice", "Debit", "Credit", "Balance");
+            statementService.streamCustomerStatement(id, startDate, endDate, entry -> csv.row(
+                    entry.getDate(), entry.getParticulars(), entry.getInvoiceNumber(),
+                    entry.getDebit(), entry.getCredit(), entry.getBalance()));
+        });
+    }
+
+    // ✅ Same entries as /statement, one JSON object per line, written while the cursor is read
+    @GetMapping("/{id}/statement/stream")
+    public ResponseEntity<StreamingResponseBody> streamCustomerStatement(
+            @PathVariable String id,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            int[] written = { 0 };
+
+            statementService.streamCustomerStatement(id, startDate, endDate, entry -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(entry));
+                    out.write('\n');
+                    // first line goes out immediately, the rest in batches
+                    if (written[0]++ % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
 }
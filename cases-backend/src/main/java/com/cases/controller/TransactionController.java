@@ -8,8 +8,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cases.dto.PageDto;
 import com.cases.model.Transaction;
 import com.cases.service.TransactionService;
 
@@ -32,6 +34,13 @@ public class TransactionController {
         return transactionService.getAllTransactions();
     }
 
+    @GetMapping(params = "limit")
+    public PageDto<Transaction> getTransactionsPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor) {
+        return transactionService.getTransactionsPage(null, null, null, limit, cursor);
+    }
+
     @GetMapping("/{id}")
     public Transaction getTransactionById(@PathVariable String id) {
         return transactionService.getTransactionById(id)
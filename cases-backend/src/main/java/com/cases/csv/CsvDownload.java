@@ -0,0 +1,84 @@
+package com.cases.csv;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * A CSV attachment whose rows are written while the handler's cursor is read,
+ * so memory stays flat however many rows there are. Clients that send
+ * Accept-Encoding: gzip get it compressed on the fly; the gzip stream is
+ * sync-flushed so each CsvWriter flush still reaches the client.
+ *
+ * Once the body runs the 200 and the header row are already on their way,
+ * so handlers build and validate their query before calling of().
+ */
+public final class CsvDownload {
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
+    private CsvDownload() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> of(String filename, WebRequest request,
+            Consumer<CsvWriter> rows) {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        StreamingResponseBody body = outputStream -> {
+            try (CsvWriter csv = new CsvWriter(gzip
+                    ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE, true)
+                    : outputStream)) {
+                rows.accept(csv);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // For export parameters: a bad value must be a 400 before the response is committed, not a cut-off file
+    public static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a date (YYYY-MM-DD)");
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" means the client refuses it
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
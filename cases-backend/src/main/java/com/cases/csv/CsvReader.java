@@ -0,0 +1,181 @@
+package com.cases.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 records one at a time from a UTF-8 stream, so an upload is
+ * parsed while it is read rather than loaded whole. Accepts what CsvWriter
+ * and spreadsheets produce: an optional byte order mark, quoted cells with
+ * commas, doubled quotes and line breaks, and \r\n or \n line ends. Blank
+ * lines are skipped.
+ *
+ * The first record is the header; get(record, column) looks cells up by
+ * header name, ignoring case, spaces and underscores ("Category Id" matches
+ * "categoryId"). A cell longer than MAX_CELL_LENGTH, usually a stray quote
+ * swallowing the rest of the file, is an IllegalArgumentException rather
+ * than an unbounded buffer.
+ */
+public class CsvReader {
+
+    static final int MAX_CELL_LENGTH = 64 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final StringBuilder cell = new StringBuilder();
+    private Map<String, Integer> columns;
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2; // one character of look-ahead; -2 when none is held
+
+    public CsvReader(InputStream in) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (peek() == '\uFEFF') {
+            pending = -2;
+        }
+    }
+
+    // Reads the header record; false when the input is empty
+    public boolean readHeader() {
+        List<String> header = next();
+        if (header == null) {
+            return false;
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(columnKey(header.get(i)), i);
+        }
+        return true;
+    }
+
+    public boolean hasColumn(String name) {
+        return columns != null && columns.containsKey(columnKey(name));
+    }
+
+    // The trimmed cell under the named column, or null when it is empty or the column is missing;
+    // the ' CsvWriter puts before formula-like text is dropped
+    public String get(List<String> record, String column) {
+        Integer index = columns == null ? null : columns.get(columnKey(column));
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        if (value.length() > 1 && value.charAt(0) == CsvWriter.FORMULA_ESCAPE
+                && CsvWriter.startsLikeFormula(value.substring(1))) {
+            value = value.substring(1);
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Line on which the last record returned by next() started, 1-based
+    public long line() {
+        return recordLine;
+    }
+
+    // The next non-blank record, or null at the end of the input
+    public List<String> next() {
+        while (true) {
+            if (peek() == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> record = readRecord();
+            if (record.size() > 1 || !record.get(0).isEmpty()) {
+                return record;
+            }
+        }
+    }
+
+    private List<String> readRecord() {
+        List<String> record = new ArrayList<>();
+        cell.setLength(0);
+        boolean quoted = false;
+        boolean cellStart = true;
+
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Quoted cell starting on line " + recordLine + " is never closed");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+                continue;
+            }
+            if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                record.add(cell.toString());
+                return record;
+            }
+            if (c == ',') {
+                record.add(cell.toString());
+                cell.setLength(0);
+                cellStart = true;
+                continue;
+            }
+            if (c == '"' && cellStart) {
+                quoted = true;
+            } else {
+                append((char) c);
+            }
+            cellStart = false;
+        }
+    }
+
+    private void append(char c) {
+        if (cell.length() == MAX_CELL_LENGTH) {
+            throw new IllegalArgumentException("Cell on line " + recordLine + " is longer than "
+                    + MAX_CELL_LENGTH + " characters");
+        }
+        cell.append(c);
+    }
+
+    private int peek() {
+        if (pending == -2) {
+            pending = readRaw();
+        }
+        return pending;
+    }
+
+    private int read() {
+        int c = peek();
+        pending = -2;
+        if (c == '\n' || (c == '\r' && peek() != '\n')) {
+            line++;
+        }
+        return c;
+    }
+
+    private int readRaw() {
+        try {
+            return in.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String columnKey(String name) {
+        return name.replaceAll("[\\s_]", "").toLowerCase(Locale.ROOT);
+    }
+}
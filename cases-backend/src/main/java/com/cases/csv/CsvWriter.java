@@ -0,0 +1,120 @@
+package com.cases.csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 rows over a buffered UTF-8 writer. Cells are written straight into
+ * the buffer (no per-row strings), quoted only when they contain a comma, a
+ * quote or a line break. null is an empty cell; Money and LocalDate use their
+ * toString, so amounts are plain rupees (1234.50) and dates ISO (2025-04-01).
+ *
+ * Text cells (names, descriptions: user input) that start with =, +, -, @,
+ * a tab or a carriage return get a leading ' so a spreadsheet shows them as
+ * text instead of running them as a formula. Numbers, Money and dates are
+ * left alone, so negative amounts stay numbers. CsvReader drops the ' again.
+ *
+ * The first row is flushed as soon as it is written so a download starts
+ * before the query has produced anything, then every FLUSH_EVERY rows.
+ * Write errors (usually the client going away) surface as UncheckedIOException
+ * so rows can be written from a Consumer.
+ */
+public class CsvWriter implements Closeable {
+
+    static final int FLUSH_EVERY = 512;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Lets Excel detect UTF-8; without it non-ASCII customer names come out garbled
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    static final char FORMULA_ESCAPE = '\'';
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final Writer out;
+    private long rows;
+
+    public CsvWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        write(BYTE_ORDER_MARK);
+    }
+
+    public CsvWriter row(Object... cells) {
+        try {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                cell(cells[i]);
+            }
+            out.write("\r\n");
+            if (rows++ % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+            return this;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void cell(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (value instanceof CharSequence && startsLikeFormula(text)) {
+            text = FORMULA_ESCAPE + text;
+        }
+        if (!needsQuotes(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    static boolean startsLikeFormula(String text) {
+        return !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0;
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(char c) {
+        try {
+            out.write(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
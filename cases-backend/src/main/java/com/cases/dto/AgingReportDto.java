@@ -0,0 +1,17 @@
+package com.cases.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgingReportDto {
+    private LocalDate asOf;
+    private List<AgingRowDto> customers; // largest outstanding first
+    private AgingRowDto totals;
+}
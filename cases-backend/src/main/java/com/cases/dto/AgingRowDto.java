@@ -0,0 +1,23 @@
+package com.cases.dto;
+
+import com.cases.model.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outstanding amount split by days past the bill's due date; not-yet-due bills count as 0-30
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgingRowDto {
+    private String customerId; // null on the totals row
+    private String customerName;
+    private Money days0to30;
+    private Money days31to60;
+    private Money days61to90;
+    private Money over90;
+    private Money total;
+}
@@ -0,0 +1,15 @@
+package com.cases.dto;
+
+import com.cases.model.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AmountTotalDto {
+    private Money sum;
+    private long count;
+}
@@ -0,0 +1,16 @@
+package com.cases.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillBatchResponseDto {
+    private int created;
+    private int failed;
+    private List<BillBatchRowResultDto> results;
+}
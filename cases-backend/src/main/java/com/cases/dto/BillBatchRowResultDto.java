@@ -0,0 +1,18 @@
+package com.cases.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillBatchRowResultDto {
+    private int row; // position in the request list, 0-based
+    private boolean created;
+    private String billId;
+    private Integer invoiceNumber;
+    private String error;
+}
@@ -0,0 +1,25 @@
+package com.cases.dto;
+
+import com.cases.model.Money;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Every field is optional; the filters that are set are ANDed together
+@Data
+@Builder
+public class BillFilterDto {
+    private String customerId;
+    private String startDate;
+    private String endDate;
+    private Money minTotal;
+    private Money maxTotal;
+    private Integer invoiceFrom;
+    private Integer invoiceTo;
+    private String sort; // invoice, date or total; a leading '-' sorts descending (default -invoice)
+
+    public boolean isEmpty() {
+        return customerId == null && minTotal == null && maxTotal == null
+                && invoiceFrom == null && invoiceTo == null && sort == null;
+    }
+}
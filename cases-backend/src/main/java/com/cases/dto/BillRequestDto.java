@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.cases.model.BillItem;
+import com.cases.model.Money;
 
 import lombok.Data;
 
@@ -13,6 +14,6 @@ public class BillRequestDto {
     private List<BillItem> items;
     private int totalQty;
     private LocalDate date;  
-    private Double grandTotal;
+    private Money grandTotal;
     private LocalDate dueDate; 
 }
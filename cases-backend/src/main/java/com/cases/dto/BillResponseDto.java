@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.cases.model.BillItem;
+import com.cases.model.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,7 +23,7 @@ public class BillResponseDto {
     private LocalDate date;
     private List<BillItem> items;
     private int totalQty;
-    private double grandTotal;
+    private Money grandTotal;
     private LocalDate dueDate;
 
 }
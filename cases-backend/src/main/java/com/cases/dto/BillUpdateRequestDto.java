@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 import com.cases.model.BillItem;
+import com.cases.model.Money;
 
 import lombok.Data;
 
@@ -14,6 +15,6 @@ public class BillUpdateRequestDto {
     private List<BillItem> items;
     private int totalQty;
     private LocalDate date;
-    private Double grandTotal;
+    private Money grandTotal;
     private LocalDate dueDate;
 }
@@ -2,12 +2,14 @@ package com.cases.dto;
 
 import java.time.LocalDate;
 
+import com.cases.model.Money;
+
 import lombok.Data;
 
 @Data
 public class CreateExpenseDto {
     private String description;
-    private double amount;
+    private Money amount;
     private LocalDate date;
     private String categoryId;
 }
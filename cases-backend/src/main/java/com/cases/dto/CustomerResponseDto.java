@@ -2,6 +2,8 @@ package com.cases.dto;
 
 import java.time.LocalDate;
 
+import com.cases.model.Money;
+
 import lombok.Data;
 
 @Data
@@ -10,7 +12,7 @@ public class CustomerResponseDto {
     private String name;
     private String phone;
     private String address;
-    private double balance;
+    private Money balance;
     private LocalDate createdAt;
     private LocalDate updatedAt;
 }
@@ -0,0 +1,15 @@
+package com.cases.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchHitDto {
+    private String id;
+    private String name;
+    private String phone;
+    private String address;
+}
@@ -2,6 +2,8 @@ package com.cases.dto;
 
 import java.time.LocalDate;
 
+import com.cases.model.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,10 +15,10 @@ import lombok.NoArgsConstructor;
 @Builder
 public class CustomerStatementEntryDto {
     private String type; // "debit" or "credit"
-    private double amount;
+    private Money amount;
     private LocalDate date;
     private String description;
     private Integer invoiceNumber;
     private String relatedBillId;
-    private double runningBalance;
+    private Money runningBalance;
 }
@@ -0,0 +1,23 @@
+package com.cases.dto;
+
+import com.cases.model.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSummaryDto {
+    private Money totalSales;
+    private long salesCount;
+    private Money totalPayment;
+    private long paymentCount;
+    private Money totalExpenses;
+    private long expenseCount;
+    private long billCount;
+    private Money outstandingReceivables; // all-time: what customers owe net of payments
+}
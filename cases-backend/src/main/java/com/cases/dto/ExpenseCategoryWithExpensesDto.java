@@ -1,6 +1,9 @@
 package com.cases.dto;
 
 import com.cases.model.Expense;
+import com.cases.model.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -11,5 +14,8 @@ import java.util.List;
 public class ExpenseCategoryWithExpensesDto {
     private String id;
     private String name;
-    private List<Expense> expenses;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Expense> expenses; // null in summary-only mode
+    private Money totalAmount;
+    private long count;
 }
@@ -0,0 +1,13 @@
+package com.cases.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportLineErrorDto {
+    private long line; // line of the uploaded file the row starts on, 1-based (the header is line 1)
+    private String error;
+}
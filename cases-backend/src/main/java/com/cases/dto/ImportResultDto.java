@@ -0,0 +1,16 @@
+package com.cases.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+    private long created;
+    private long failed;
+    private List<ImportLineErrorDto> errors; // by line; only the first few hundred of a bad file
+}
@@ -2,12 +2,14 @@ package com.cases.dto;
 
 import java.time.LocalDate;
 
+import com.cases.model.Money;
+
 import lombok.Data;
 
 @Data
 public class PaymentRequestDto {
     private String customerId;
-    private double amount;
+    private Money amount;
     private String description;
     private LocalDate date; 
 }
@@ -1,5 +1,6 @@
 package com.cases.dto;
 
+import com.cases.model.Money;
 import com.cases.model.Transaction;
 
 import lombok.AllArgsConstructor;
@@ -12,7 +13,7 @@ import lombok.NoArgsConstructor;
 public class PaymentResponseDto {
     private String message;
     private Transaction transaction;
-    private double updatedBalance;
+    private Money updatedBalance;
     private String customerId;
     private String customerName;
 }
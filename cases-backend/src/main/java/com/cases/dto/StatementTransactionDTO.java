@@ -1,8 +1,10 @@
 package com.cases.dto;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,12 +16,16 @@ public class StatementTransactionDTO {
     private String id;
     private LocalDate date;
     private String particulars;
-    private Integer debit;
-    private Integer credit;
-    private Integer balance;
+    private Money debit;
+    private Money credit;
+    private Money balance;
     private Integer invoiceNumber;
     private String relatedBillId;
     private String type;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
+
+    public static boolean isDebit(Transaction txn) {
+        return txn.getType().equalsIgnoreCase("debit");
+    }
 }
@@ -2,6 +2,8 @@ package com.cases.dto;
 
 import java.time.LocalDate;
 
+import com.cases.model.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +16,7 @@ import lombok.NoArgsConstructor;
 public class TransactionResponseDto {
     private String id;
     private String type;
-    private double amount;
+    private Money amount;
     private LocalDate date;
     private String description;
     private String relatedBillId;
@@ -0,0 +1,13 @@
+package com.cases.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedDto<T> {
+    private Long version; // what the ETag is built from; null for documents older than @Version
+    private T body;
+}
@@ -0,0 +1,12 @@
+package com.cases.mapper;
+
+import org.mapstruct.Mapper;
+
+import com.cases.dto.BillResponseDto;
+import com.cases.model.Bill;
+
+@Mapper(config = CasesMapperConfig.class)
+public interface BillMapper {
+
+    BillResponseDto toDto(Bill bill);
+}
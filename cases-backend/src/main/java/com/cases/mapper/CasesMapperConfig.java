@@ -0,0 +1,10 @@
+package com.cases.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+// Shared by every mapper: Spring beans, and a DTO field nobody maps fails the build instead of going out null
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface CasesMapperConfig {
+}
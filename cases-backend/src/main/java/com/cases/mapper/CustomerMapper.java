@@ -0,0 +1,16 @@
+package com.cases.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+
+import com.cases.dto.CustomerResponseDto;
+import com.cases.model.Customer;
+
+@Mapper(config = CasesMapperConfig.class)
+public interface CustomerMapper {
+
+    CustomerResponseDto toResponseDto(Customer customer);
+
+    List<CustomerResponseDto> toResponseDtos(List<Customer> customers);
+}
@@ -0,0 +1,23 @@
+package com.cases.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import com.cases.dto.AmountTotalDto;
+import com.cases.dto.ExpenseCategoryWithExpensesDto;
+import com.cases.model.Expense;
+import com.cases.model.ExpenseCategory;
+
+@Mapper(config = CasesMapperConfig.class)
+public interface ExpenseMapper {
+
+    // expenses is null in summary-only mode
+    @Mapping(target = "id", source = "category.id")
+    @Mapping(target = "name", source = "category.name")
+    @Mapping(target = "expenses", source = "expenses")
+    @Mapping(target = "totalAmount", source = "total.sum")
+    @Mapping(target = "count", source = "total.count")
+    ExpenseCategoryWithExpensesDto toDto(ExpenseCategory category, List<Expense> expenses, AmountTotalDto total);
+}
@@ -0,0 +1,45 @@
+package com.cases.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import com.cases.dto.StatementTransactionDTO;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+@Mapper(config = CasesMapperConfig.class)
+public interface StatementMapper {
+
+    // One statement line for a transaction, given the running balance after it
+    @Mapping(target = "id", source = "txn.id")
+    @Mapping(target = "date", source = "txn.date")
+    @Mapping(target = "particulars", source = "txn", qualifiedByName = "particulars")
+    @Mapping(target = "debit", source = "txn", qualifiedByName = "debit")
+    @Mapping(target = "credit", source = "txn", qualifiedByName = "credit")
+    @Mapping(target = "balance", source = "balance")
+    @Mapping(target = "invoiceNumber", source = "txn.invoiceNumber")
+    @Mapping(target = "relatedBillId", source = "txn.relatedBillId")
+    @Mapping(target = "type", source = "txn.type")
+    @Mapping(target = "amount", source = "txn.amount")
+    @Mapping(target = "description", source = "txn.description")
+    StatementTransactionDTO toEntry(Transaction txn, Money balance);
+
+    @Named("particulars")
+    default String particulars(Transaction txn) {
+        Integer invoiceNumber = txn.getInvoiceNumber();
+        return StatementTransactionDTO.isDebit(txn)
+                ? "Invoice #" + (invoiceNumber != null ? invoiceNumber : "N/A")
+                : "Payment Received";
+    }
+
+    @Named("debit")
+    default Money debit(Transaction txn) {
+        return StatementTransactionDTO.isDebit(txn) ? txn.getAmount() : null;
+    }
+
+    @Named("credit")
+    default Money credit(Transaction txn) {
+        return StatementTransactionDTO.isDebit(txn) ? null : txn.getAmount();
+    }
+}
@@ -0,0 +1,64 @@
+package com.cases.migration;
+
+import java.util.stream.Stream;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.cases.model.Customer;
+import com.cases.service.CustomerSearchIndex;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills Customer.searchKeys on customers created before search existed, so the
+ * Mongo fallback of the type-ahead finds them too. Only customers without the
+ * field are read, so the runner is a no-op once the data is migrated.
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cases.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerSearchKeyMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = Query.query(Criteria.where("searchKeys").exists(false));
+        pending.fields().include("name", "phone");
+
+        long migrated = 0;
+        int batched = 0;
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+        try (Stream<Customer> customers = mongoTemplate.stream(pending, Customer.class)) {
+            for (Customer customer : (Iterable<Customer>) customers::iterator) {
+                ops.updateOne(Query.query(Criteria.where("_id").is(customer.getId())),
+                        Update.update("searchKeys", CustomerSearchIndex.keysOf(customer.getName(), customer.getPhone())));
+                if (++batched == BATCH_SIZE) {
+                    migrated += ops.execute().getModifiedCount();
+                    ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+                    batched = 0;
+                }
+            }
+        }
+        if (batched > 0) {
+            migrated += ops.execute().getModifiedCount();
+        }
+        if (migrated > 0) {
+            log.info("Backfilled search keys on {} customers", migrated);
+        }
+    }
+}
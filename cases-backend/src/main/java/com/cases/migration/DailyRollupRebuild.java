@@ -0,0 +1,55 @@
+package com.cases.migration;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.cases.service.DailyRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills the daily rollups from existing transactions and expenses the
+ * first time the application starts with them, or on every start when
+ * cases.rollups.force-rebuild is set. After that the write paths keep them current.
+ *
+ * Runs before the web server starts, like MoneyMigration, so this node takes
+ * no writes while the rollups are built. When several nodes start together
+ * only the one holding the rebuild lease builds; the others wait for it here
+ * and then start on the finished rollups instead of building their own.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cases.rollups.rebuild-on-startup", havingValue = "true", matchIfMissing = true)
+public class DailyRollupRebuild implements InitializingBean {
+
+    private static final long WAIT_MILLIS = 1000;
+
+    private final DailyRollupService dailyRollupService;
+    private final Optional<MoneyMigration> moneyMigration; // the rebuild sums the fields it converts, so it goes first
+
+    @Value("${cases.rollups.force-rebuild:false}")
+    private boolean forceRebuild;
+
+    @Override
+    public void afterPropertiesSet() throws InterruptedException {
+        boolean force = forceRebuild;
+        while (force || !dailyRollupService.isReady()) {
+            long started = System.currentTimeMillis();
+            if (dailyRollupService.tryRebuild()) {
+                log.info("Rebuilt daily rollups in {} ms", System.currentTimeMillis() - started);
+                return;
+            }
+            log.info("Another node is rebuilding the daily rollups; waiting for it");
+            while (dailyRollupService.rebuildInProgress()) {
+                Thread.sleep(WAIT_MILLIS);
+            }
+            force = false; // the rollups just rebuilt elsewhere will do
+        }
+    }
+}
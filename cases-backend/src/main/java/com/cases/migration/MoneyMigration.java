@@ -0,0 +1,79 @@
+package com.cases.migration;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rewrites amounts stored as double rupees into int64 paise, server side with
+ * one pipeline update per field. Only values still of type double are touched,
+ * so it is a no-op once the data is migrated.
+ *
+ * Like VersionMigration, and unlike the other migrations, this is not an
+ * ApplicationRunner: runners start once Tomcat already takes requests, and a
+ * balance or rollup $inc of long paise onto a field still holding double
+ * rupees stays a double, which would then be multiplied by 100. Singletons are initialised before the web server
+ * starts, so converting here finishes before the first write can arrive (and
+ * before the rollup rebuild, which sums these fields).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cases.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class MoneyMigration implements InitializingBean {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        long migrated = migrate("transaction", "amount")
+                + migrate("expenses", "amount")
+                + migrate("customers", "balance")
+                + migrate("bills", "grandTotal")
+                + migrateBillItems()
+                + migrate("balance_checkpoints", "closingBalance")
+                + migrate("daily_rollups", "sum");
+        if (migrated > 0) {
+            log.info("Converted {} documents from rupee doubles to paise", migrated);
+        }
+    }
+
+    private long migrate(String collection, String field) {
+        Document filter = new Document(field, new Document("$type", "double"));
+        Document update = new Document("$set", new Document(field, toPaise("$" + field)));
+        return mongoTemplate.getCollection(collection).updateMany(filter, List.of(update)).getModifiedCount();
+    }
+
+    private long migrateBillItems() {
+        Document filter = new Document("items", new Document("$elemMatch", new Document("$or", List.of(
+                new Document("rate", new Document("$type", "double")),
+                new Document("totalAmount", new Document("$type", "double"))))));
+        Document items = new Document("$map", new Document("input", "$items")
+                .append("as", "item")
+                .append("in", new Document("$mergeObjects", List.of("$$item", new Document()
+                        .append("rate", toPaiseIfDouble("$$item.rate"))
+                        .append("totalAmount", toPaiseIfDouble("$$item.totalAmount"))))));
+        Document update = new Document("$set", new Document("items", items));
+        return mongoTemplate.getCollection("bills").updateMany(filter, List.of(update)).getModifiedCount();
+    }
+
+    // floor(rupees * 100 + 0.5): Math.round, as Money.ofRupees(double) reads unmigrated values ($round is half-even)
+    private Document toPaise(String value) {
+        Document rupeesTimes100 = new Document("$multiply", List.of(value, 100));
+        return new Document("$toLong", new Document("$floor", new Document("$add", List.of(rupeesTimes100, 0.5))));
+    }
+
+    private Document toPaiseIfDouble(String value) {
+        return new Document("$cond", List.of(
+                new Document("$eq", List.of(new Document("$type", value), "double")),
+                toPaise(value),
+                value));
+    }
+}
@@ -0,0 +1,134 @@
+package com.cases.migration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.DBRef;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills customerId/customerName on bills and customerId/customerName/relatedBillId/invoiceNumber
+ * on transactions written before those snapshots existed. Only documents without a customerId are
+ * touched, so the runner is a no-op once the data is migrated.
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cases.migrations.enabled", havingValue = "true", matchIfMissing = true)
+public class ReferenceSnapshotMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long bills = migrate("bills");
+        long transactions = migrate("transaction");
+        if (bills > 0 || transactions > 0) {
+            log.info("Backfilled reference snapshots on {} bills and {} transactions", bills, transactions);
+        }
+    }
+
+    private long migrate(String collection) {
+        Query pending = Query.query(Criteria.where("customerId").exists(false));
+        pending.fields().include("customer", "relatedBill", "invoiceNumber");
+
+        long migrated = 0;
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Document> docs = mongoTemplate.stream(pending, Document.class, collection)) {
+            for (Document doc : (Iterable<Document>) docs::iterator) {
+                batch.add(doc);
+                if (batch.size() == BATCH_SIZE) {
+                    migrated += flush(collection, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrated += flush(collection, batch);
+        }
+        return migrated;
+    }
+
+    private int flush(String collection, List<Document> batch) {
+        Set<Object> customerIds = new HashSet<>();
+        Set<Object> billIds = new HashSet<>();
+        for (Document doc : batch) {
+            DBRef customer = doc.get("customer", DBRef.class);
+            DBRef bill = doc.get("relatedBill", DBRef.class);
+            if (customer != null) {
+                customerIds.add(customer.getId());
+            }
+            if (bill != null) {
+                billIds.add(bill.getId());
+            }
+        }
+
+        Map<Object, String> customerNames = lookup("customers", customerIds, "name");
+        Map<Object, Object> invoiceNumbers = billIds.isEmpty() ? Map.of() : lookup("bills", billIds, "invoiceNumber");
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        int count = 0;
+        for (Document doc : batch) {
+            DBRef customer = doc.get("customer", DBRef.class);
+            if (customer == null) {
+                continue;
+            }
+            Update update = new Update()
+                    .set("customerId", idString(customer.getId()))
+                    .set("customerName", customerNames.get(customer.getId()));
+
+            DBRef bill = doc.get("relatedBill", DBRef.class);
+            if (bill != null) {
+                update.set("relatedBillId", idString(bill.getId()));
+                if (doc.get("invoiceNumber") == null && invoiceNumbers.get(bill.getId()) != null) {
+                    update.set("invoiceNumber", invoiceNumbers.get(bill.getId()));
+                }
+            }
+            ops.updateOne(Query.query(Criteria.where("_id").is(doc.get("_id"))), update);
+            count++;
+        }
+        if (count > 0) {
+            ops.execute();
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<Object, T> lookup(String collection, Set<Object> ids, String field) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include(field);
+
+        Map<Object, T> values = new HashMap<>();
+        for (Document doc : mongoTemplate.find(query, Document.class, collection)) {
+            values.put(doc.get("_id"), (T) doc.get(field));
+        }
+        return values;
+    }
+
+    private String idString(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
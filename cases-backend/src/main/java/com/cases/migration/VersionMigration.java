@@ -0,0 +1,45 @@
+package com.cases.migration;
+
+import org.bson.Document;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives customers, bills and transactions written before @Version existed a
+ * starting version. Without one, saving such a document would be treated as
+ * an insert and fail on the duplicate _id. A no-op once every document has
+ * the field.
+ *
+ * Saves depend on it, so it runs as an InitializingBean, before the web server
+ * takes requests (see MoneyMigration), and has its own switch instead of
+ * cases.migrations.enabled: turning the data migrations off must not break
+ * every update of an old document. Only turn it off where there is no
+ * database to migrate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cases.migrations.versions.enabled", havingValue = "true", matchIfMissing = true)
+public class VersionMigration implements InitializingBean {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        long migrated = migrate("customers") + migrate("bills") + migrate("transaction");
+        if (migrated > 0) {
+            log.info("Set an initial version on {} documents", migrated);
+        }
+    }
+
+    private long migrate(String collection) {
+        Document filter = new Document("version", new Document("$exists", false));
+        Document update = new Document("$set", new Document("version", 0L));
+        return mongoTemplate.getCollection(collection).updateMany(filter, update).getModifiedCount();
+    }
+}
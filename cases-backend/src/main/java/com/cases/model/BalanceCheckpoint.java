@@ -0,0 +1,28 @@
+package com.cases.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "balance_checkpoints")
+@CompoundIndex(name = "customerId_period", def = "{ 'customerId': 1, 'period': -1 }", unique = true)
+public class BalanceCheckpoint {
+
+    @Id
+    private String id; // customerId + ":" + period
+
+    private String customerId;
+
+    private String period; // closed month, "yyyy-MM"
+
+    private Money closingBalance; // credits minus debits up to the end of the period
+}
@@ -4,6 +4,10 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,23 +15,37 @@ import lombok.Data;
 
 @Data
 @Document(collection = "bills")
+// Filtered bill listings (BillService.findBills): one customer's bills by invoice or date, and amount ranges
+@CompoundIndex(name = "customerId_invoiceNumber", def = "{ 'customerId': 1, 'invoiceNumber': -1 }")
+@CompoundIndex(name = "customerId_date_invoiceNumber", def = "{ 'customerId': 1, 'date': -1, 'invoiceNumber': -1 }")
+@CompoundIndex(name = "grandTotal_invoiceNumber", def = "{ 'grandTotal': 1, 'invoiceNumber': -1 }")
 public class Bill {
 
     @Id
     private String id;
 
+    @Version
+    private Long version; // bumped on every write; the ETag of single-document reads
+
+    @Indexed(direction = IndexDirection.DESCENDING, unique = true)
     private int invoiceNumber;
 
     @DBRef
     private Customer customer; // Reference to Customer document
 
+    // Snapshots of the referenced customer so list reads can skip the DBRef
+    private String customerId;
+    private String customerName;
+
+    @Indexed
     private LocalDate date; // Default to current date
 
     private List<BillItem> items; // Embedded list of bill items
 
     private int totalQty;
 
-    private double grandTotal;
+    private Money grandTotal;
 
+    @Indexed
     private LocalDate dueDate;
 }
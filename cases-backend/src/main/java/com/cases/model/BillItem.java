@@ -6,7 +6,7 @@ import lombok.Data;
 public class BillItem {
     private String modelNumber;
     private int quantity;
-    private double rate;
+    private Money rate;
     private Double discount;     // Optional
-    private double totalAmount;
+    private Money totalAmount;
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.cases.model;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -13,8 +17,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Document(collection = "customers")
+@CompoundIndex(name = "name_id", def = "{ 'name': 1, '_id': 1 }")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer {
@@ -22,14 +27,23 @@ public class Customer {
     @Id
     private String id;
 
+    @Version
+    private Long version; // bumped on every write; the ETag of single-document reads
+
+    @Indexed(unique = true)
     private String name;
     private String phone;
     private String address;
-    private double balance;
+    private Money balance;
+
+    // Normalised name, its words and the phone digits; the cold-start fallback for type-ahead search
+    @Indexed
+    private List<String> searchKeys;
 
     @CreatedDate
     private LocalDate createdAt;
 
+    @Indexed
     @LastModifiedDate
     private LocalDate updatedAt;
 }
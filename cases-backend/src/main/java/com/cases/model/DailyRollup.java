@@ -0,0 +1,34 @@
+package com.cases.model;
+
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "daily_rollups")
+@CompoundIndex(name = "kind_granularity_date", def = "{ 'kind': 1, 'granularity': 1, 'date': 1 }")
+public class DailyRollup {
+
+    @Id
+    private String id; // kind + ":" + "yyyy-MM-dd" for days, kind + ":" + "yyyy-MM" for months
+
+    private String kind; // "sales", "payments" or "expenses"
+
+    private String granularity; // "day" or "month"
+
+    private LocalDate date; // the day, or the first day of the month
+
+    private Money sum;
+
+    private long count;
+}
@@ -3,6 +3,7 @@ package com.cases.model;
 import java.time.LocalDate;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -14,13 +15,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Document(collection = "expenses") 
+@Document(collection = "expenses")
+@CompoundIndex(name = "categoryId_date", def = "{ 'categoryId': 1, 'date': 1 }")
+// Date ranges, and the CSV export's (date, _id) order straight off the index
+@CompoundIndex(name = "date_id", def = "{ 'date': 1, '_id': 1 }")
 public class Expense {
     @Id
     private String id;
 
     private String description;
-    private double amount;
+    private Money amount;
     private LocalDate date;
 
     private String categoryId;
@@ -1,6 +1,7 @@
 package com.cases.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -18,5 +19,6 @@ public class ExpenseCategory {
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String name;
 }
@@ -0,0 +1,105 @@
+package com.cases.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * An amount of rupees held as a whole number of paise, so sums and running
+ * balances are exact long arithmetic. Stored in MongoDB as an int64 of paise
+ * and written to JSON as a rupee number with two decimals (1234.50).
+ */
+public record Money(long paise) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofPaise(long paise) {
+        return paise == 0 ? ZERO : new Money(paise);
+    }
+
+    // Rounds half up to the nearest paisa
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money ofRupees(BigDecimal rupees) {
+        return ofPaise(rupees.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact());
+    }
+
+    public static Money ofRupees(double rupees) {
+        return ofPaise(Math.round(rupees * 100));
+    }
+
+    @JsonValue
+    public BigDecimal rupees() {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public Money plus(Money other) {
+        return ofPaise(Math.addExact(paise, other.paise));
+    }
+
+    public Money minus(Money other) {
+        return ofPaise(Math.subtractExact(paise, other.paise));
+    }
+
+    public Money negate() {
+        return ofPaise(Math.negateExact(paise));
+    }
+
+    public boolean isPositive() {
+        return paise > 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public String toString() {
+        return rupees().toPlainString();
+    }
+
+    // Registered with both the blocking and the reactive MongoDB mapping
+    public static List<Converter<?, ?>> converters() {
+        return List.of(new ToPaise(), new FromPaise(), new FromIntPaise(), new FromLegacyRupees());
+    }
+
+    @WritingConverter
+    static class ToPaise implements Converter<Money, Long> {
+        @Override
+        public Long convert(Money money) {
+            return money.paise();
+        }
+    }
+
+    @ReadingConverter
+    static class FromPaise implements Converter<Long, Money> {
+        @Override
+        public Money convert(Long paise) {
+            return ofPaise(paise);
+        }
+    }
+
+    @ReadingConverter
+    static class FromIntPaise implements Converter<Integer, Money> {
+        @Override
+        public Money convert(Integer paise) {
+            return ofPaise(paise);
+        }
+    }
+
+    // Amounts written before the switch to paise were doubles in rupees
+    @ReadingConverter
+    static class FromLegacyRupees implements Converter<Double, Money> {
+        @Override
+        public Money convert(Double rupees) {
+            return ofRupees(rupees);
+        }
+    }
+}
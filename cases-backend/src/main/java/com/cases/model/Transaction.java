@@ -3,6 +3,9 @@ package com.cases.model;
 import java.time.LocalDate;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,17 +19,29 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Document(collection = "transaction")
+@CompoundIndex(name = "date_id", def = "{ 'date': -1, '_id': -1 }")
+@CompoundIndex(name = "type_date_id", def = "{ 'type': 1, 'date': -1, '_id': -1 }")
+@CompoundIndex(name = "customerId_date_id", def = "{ 'customerId': 1, 'date': 1, '_id': 1 }")
 public class Transaction {
 
     @Id
     private String id;
 
+    @Version
+    private Long version; // bumped on every write; the ETag of single-document reads
+
     @DBRef
     private Customer customer;
 
+    // Snapshots of the referenced documents so list reads can skip the DBRefs
+    private String customerId;
+    private String customerName;
+    @Indexed(sparse = true)
+    private String relatedBillId;
+
     private String type; // should be either "debit" or "credit"
 
-    private double amount;
+    private Money amount;
 
     private LocalDate date;
 
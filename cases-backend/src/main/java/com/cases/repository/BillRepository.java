@@ -5,11 +5,25 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.cases.model.Bill;
 
 public interface BillRepository extends MongoRepository<Bill, String> {
-    Optional<Bill> findTopByOrderByInvoiceNumberDesc(); // for auto-increment
+
+    // List reads leave out the customer DBRef and rely on the customerId/customerName snapshots.
+    // Never save a bill loaded this way.
+    String LEAN_FIELDS = "{ 'customer': 0 }";
+
+    @Query(value = "{}", fields = LEAN_FIELDS)
+    List<Bill> findAllLean();
+
+    @Query(fields = LEAN_FIELDS)
+    Optional<Bill> findTopByOrderByInvoiceNumberDesc(); // for seeding the invoice counter
+
+    @Query(fields = LEAN_FIELDS)
     List<Bill> findByDueDate(LocalDate dueDate);
+
+    @Query(fields = LEAN_FIELDS)
     List<Bill> findByDateBetween(LocalDate startDate, LocalDate endDate);
 }
@@ -5,22 +5,34 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.cases.model.Transaction;
 
 public interface TransactionRepository extends MongoRepository<Transaction, String> {
 
-    // ✅ fetch transactions by customer._id and sort by date
-    List<Transaction> findByCustomer_IdOrderByDateAsc(String customerId);
+    // List reads leave out the DBRefs and rely on the customerId/customerName/relatedBillId snapshots,
+    // so they cost one query regardless of row count. Never save a transaction loaded this way.
+    String LEAN_FIELDS = "{ 'customer': 0, 'relatedBill': 0 }";
 
-    // ✅ fetch transaction where relatedBill._id == billId
-    Optional<Transaction> findByRelatedBill_Id(String billId);
+    @Query(value = "{}", fields = LEAN_FIELDS)
+    List<Transaction> findAllLean();
 
+    // ✅ fetch transactions by customer id and sort by date
+    @Query(fields = LEAN_FIELDS)
+    List<Transaction> findByCustomerIdOrderByDateAsc(String customerId);
+
+    // ✅ fetch the full transaction (DBRefs included) created for a bill
+    Optional<Transaction> findByRelatedBillId(String billId);
+
+    @Query(fields = LEAN_FIELDS)
     List<Transaction> findByType(String type);
 
+    @Query(fields = LEAN_FIELDS)
     List<Transaction> findByTypeAndDateBetween(String type, LocalDate startDate, LocalDate endDate);
 
-    List<Transaction> findByCustomer_IdAndDateBetweenOrderByDateAsc(String customerId, LocalDate startDate,
+    @Query(fields = LEAN_FIELDS)
+    List<Transaction> findByCustomerIdAndDateBetweenOrderByDateAsc(String customerId, LocalDate startDate,
             LocalDate endDate);
 
 }
@@ -0,0 +1,177 @@
+package com.cases.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.cases.config.CacheConfig;
+import com.cases.dto.AgingReportDto;
+import com.cases.dto.AgingRowDto;
+import com.cases.model.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Accounts-receivable aging from one pipeline over bills and the ledger.
+ *
+ * Payments are not tied to bills, so they are applied oldest bill first: what
+ * a customer still owes is the newest part of their debt. Each debt row (a
+ * bill, or a manual debit without a bill) keeps the share of it that is still
+ * open, and that share is aged by the days since its due date.
+ *
+ * Results are cached per day and per value of the ledger and customers change
+ * counters. Every bill, payment and manual transaction write bumps the ledger
+ * counter once it is done (through BalanceCheckpointService.invalidateFrom),
+ * and a rename bumps the customers counter after the name snapshots change,
+ * so a write on any node makes the next read recompute, and a report computed
+ * halfway through a write is never cached under the key that follows it.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgingReportService {
+
+    private static final String DAYS_0_TO_30 = "days0to30";
+    private static final String DAYS_31_TO_60 = "days31to60";
+    private static final String DAYS_61_TO_90 = "days61to90";
+    private static final String OVER_90 = "over90";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Cacheable(cacheNames = CacheConfig.AGING_REPORT,
+            key = "#asOf.toString()"
+                    + " + ':' + @changeCounterService.current(T(com.cases.service.ChangeCounterService).LEDGER)"
+                    + " + ':' + @changeCounterService.current(T(com.cases.service.ChangeCounterService).CUSTOMERS)")
+    public AgingReportDto getAgingReport(LocalDate asOf) {
+        Document result = mongoTemplate.getCollection("bills")
+                .aggregate(pipeline(asOf))
+                .allowDiskUse(true)
+                .first();
+
+        List<AgingRowDto> customers = result.getList("customers", Document.class).stream()
+                .map(row -> row(row, row.getString("_id"), row.getString("customerName")))
+                .toList();
+        return new AgingReportDto(asOf, customers, totals(result.getList("totals", Document.class)));
+    }
+
+    private List<Document> pipeline(LocalDate asOf) {
+        // LocalDate is stored as midnight in the server's zone; asOf has to match for $dateDiff
+        Date asOfDate = Date.from(asOf.atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        Document isDebit = new Document("$eq", List.of("$type", "debit"));
+        Document ledgerRows = new Document("$unionWith", new Document("coll", "transaction")
+                .append("pipeline", List.of(
+                        // Bills are already in; their ledger rows would count them twice
+                        new Document("$match", new Document("customerId", new Document("$ne", null))
+                                .append("$or", List.of(
+                                        new Document("type", "credit"),
+                                        new Document("type", "debit").append("relatedBillId", null)))),
+                        new Document("$project", new Document("_id", 0)
+                                .append("customerId", 1)
+                                .append("customerName", 1)
+                                .append("due", new Document("$cond", Arrays.asList(isDebit, "$date", null)))
+                                .append("owed", new Document("$cond", List.of(isDebit, "$amount", 0L)))
+                                .append("paid", new Document("$cond", List.of(isDebit, 0L, "$amount")))))));
+
+        // Per customer: all debt and payments, plus the debt newer than each row (newest first)
+        Document unbounded = new Document("documents", List.of("unbounded", "unbounded"));
+        Document windows = new Document("$setWindowFields", new Document("partitionBy", "$customerId")
+                .append("sortBy", new Document("due", -1))
+                .append("output", new Document()
+                        .append("owedTotal", new Document("$sum", "$owed").append("window", unbounded))
+                        .append("paidTotal", new Document("$sum", "$paid").append("window", unbounded))
+                        .append("newerOwed", new Document("$sum", "$owed")
+                                .append("window", new Document("documents", List.of("unbounded", -1))))));
+
+        // Outstanding debt covers the newest rows first; older rows are paid off
+        Document outstanding = new Document("$max", List.of(0L,
+                new Document("$subtract", List.of("$owedTotal", "$paidTotal"))));
+        Document open = new Document("$max", List.of(0L, new Document("$min", List.of("$owed",
+                new Document("$subtract", List.of(outstanding, new Document("$ifNull", List.of("$newerOwed", 0L))))))));
+
+        Document age = new Document("$dateDiff", new Document("startDate", "$due")
+                .append("endDate", asOfDate)
+                .append("unit", "day"));
+
+        Document customers = new Document("$group", new Document("_id", "$customerId")
+                .append("customerName", new Document("$max", "$customerName"))
+                .append(DAYS_0_TO_30, sumIfAgeBetween(null, 30))
+                .append(DAYS_31_TO_60, sumIfAgeBetween(31, 60))
+                .append(DAYS_61_TO_90, sumIfAgeBetween(61, 90))
+                .append(OVER_90, sumIfAgeBetween(91, null))
+                .append("total", new Document("$sum", "$open")));
+
+        Document buckets = new Document("$bucket", new Document("groupBy", "$age")
+                .append("boundaries", List.of(Integer.MIN_VALUE, 31, 61, 91))
+                .append("default", OVER_90)
+                .append("output", new Document("sum", new Document("$sum", "$open"))));
+
+        return List.of(
+                new Document("$match", new Document("customerId", new Document("$ne", null))),
+                new Document("$project", new Document("_id", 0)
+                        .append("customerId", 1)
+                        .append("customerName", 1)
+                        .append("due", new Document("$ifNull", List.of("$dueDate", "$date")))
+                        .append("owed", "$grandTotal")
+                        .append("paid", new Document("$literal", 0L))),
+                ledgerRows,
+                windows,
+                new Document("$set", new Document("open", open)),
+                new Document("$match", new Document("open", new Document("$gt", 0))),
+                new Document("$set", new Document("age", age)),
+                new Document("$facet", new Document()
+                        .append("customers", List.of(customers, new Document("$sort", new Document("total", -1))))
+                        .append("totals", List.of(buckets))));
+    }
+
+    private static Document sumIfAgeBetween(Integer from, Integer to) {
+        Document inRange = new Document("$and", List.of(
+                from == null ? true : new Document("$gte", List.of("$age", from)),
+                to == null ? true : new Document("$lte", List.of("$age", to))));
+        return new Document("$sum", new Document("$cond", List.of(inRange, "$open", 0L)));
+    }
+
+    private static AgingRowDto row(Document row, String customerId, String customerName) {
+        return AgingRowDto.builder()
+                .customerId(customerId)
+                .customerName(customerName)
+                .days0to30(money(row.get(DAYS_0_TO_30)))
+                .days31to60(money(row.get(DAYS_31_TO_60)))
+                .days61to90(money(row.get(DAYS_61_TO_90)))
+                .over90(money(row.get(OVER_90)))
+                .total(money(row.get("total")))
+                .build();
+    }
+
+    // $bucket ids are the lower boundaries, or "over90" for the default bucket
+    static AgingRowDto totals(List<Document> buckets) {
+        Document row = new Document(DAYS_0_TO_30, 0L).append(DAYS_31_TO_60, 0L).append(DAYS_61_TO_90, 0L)
+                .append(OVER_90, 0L);
+        long total = 0;
+        for (Document bucket : buckets) {
+            long sum = ((Number) bucket.get("sum")).longValue();
+            Object id = bucket.get("_id");
+            String field = id instanceof Number lower
+                    ? switch (lower.intValue()) {
+                        case 31 -> DAYS_31_TO_60;
+                        case 61 -> DAYS_61_TO_90;
+                        default -> DAYS_0_TO_30;
+                    }
+                    : OVER_90;
+            row.put(field, sum);
+            total += sum;
+        }
+        row.put("total", total);
+        return row(row, null, null);
+    }
+
+    private static Money money(Object paise) {
+        return Money.ofPaise(paise instanceof Number value ? value.longValue() : 0);
+    }
+}
@@ -0,0 +1,136 @@
+package com.cases.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.cases.model.BalanceCheckpoint;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Month-end running balances per customer, so a ranged statement can start
+ * from the right opening balance without replaying the whole ledger.
+ *
+ * Checkpoints only exist for closed months. They are built lazily the first
+ * time a statement needs them, and a write dated in a closed month deletes
+ * the checkpoints from that month on so they are rebuilt on the next read.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceCheckpointService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeCounterService changeCounters;
+
+    // Balance at the start of the given day: last checkpoint plus the rows of the partial month
+    public Money openingBalance(String customerId, LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        long balance = closingBalance(customerId, month.minusMonths(1));
+
+        if (date.getDayOfMonth() > 1) {
+            Map<String, Long> partial = monthlyNet(customerId, month.atDay(1), date);
+            balance += partial.values().stream().mapToLong(Long::longValue).sum();
+        }
+        return Money.ofPaise(balance);
+    }
+
+    // Call after any ledger write for the customer dated on the given day
+    public void invalidateFrom(String customerId, LocalDate date) {
+        changeCounters.bump(ChangeCounterService.LEDGER);
+        if (customerId != null) {
+            changeCounters.bump(ChangeCounterService.ledger(customerId)); // the statement ETag moves with the ledger
+        }
+        if (customerId == null || date == null || !YearMonth.from(date).isBefore(YearMonth.now())) {
+            return; // only closed months have checkpoints
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("customerId").is(customerId)
+                .and("period").gte(YearMonth.from(date).toString())), BalanceCheckpoint.class);
+    }
+
+    // In paise
+    private long closingBalance(String customerId, YearMonth month) {
+        Query latest = Query.query(Criteria.where("customerId").is(customerId).and("period").lte(month.toString()))
+                .with(Sort.by(Sort.Direction.DESC, "period"))
+                .limit(1);
+        BalanceCheckpoint checkpoint = mongoTemplate.findOne(latest, BalanceCheckpoint.class);
+
+        if (checkpoint != null && checkpoint.getPeriod().equals(month.toString())) {
+            return checkpoint.getClosingBalance().paise();
+        }
+
+        // Roll forward from the last checkpoint (or the beginning) one aggregation at a time
+        long balance = checkpoint != null ? checkpoint.getClosingBalance().paise() : 0;
+        LocalDate from = checkpoint != null ? YearMonth.parse(checkpoint.getPeriod()).plusMonths(1).atDay(1) : null;
+        Map<String, Long> netByMonth = monthlyNet(customerId, from, month.plusMonths(1).atDay(1));
+
+        BulkOperations checkpoints = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BalanceCheckpoint.class);
+        boolean pending = false;
+
+        YearMonth first = from != null ? YearMonth.from(from) : firstMonth(netByMonth, month);
+        for (YearMonth m = first; !m.isAfter(month); m = m.plusMonths(1)) {
+            balance += netByMonth.getOrDefault(m.toString(), 0L);
+            if (m.isBefore(YearMonth.now())) {
+                checkpoints.upsert(byId(customerId, m), new Update()
+                        .set("customerId", customerId)
+                        .set("period", m.toString())
+                        .set("closingBalance", balance));
+                pending = true;
+            }
+        }
+        if (pending) {
+            checkpoints.execute();
+        }
+        return balance;
+    }
+
+    private YearMonth firstMonth(Map<String, Long> netByMonth, YearMonth fallback) {
+        return netByMonth.keySet().stream().min(String::compareTo).map(YearMonth::parse).orElse(fallback);
+    }
+
+    private Query byId(String customerId, YearMonth month) {
+        return Query.query(Criteria.where("_id").is(customerId + ":" + month));
+    }
+
+    // Credits minus debits in paise per "yyyy-MM" for rows with from <= date < to (from may be null)
+    private Map<String, Long> monthlyNet(String customerId, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("customerId").is(customerId);
+        criteria = from != null ? criteria.and("date").gte(from).lt(to) : criteria.and("date").lt(to);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.project()
+                        .and(DateOperators.DateToString.dateOf("date").toString("%Y-%m")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId())))
+                        .as("period")
+                        .and(ConditionalOperators.when(Criteria.where("type").is("debit"))
+                                .then(ArithmeticOperators.Multiply.valueOf("amount").multiplyBy(-1))
+                                .otherwiseValueOf("amount"))
+                        .as("net"),
+                Aggregation.group("period").sum("net").as("net"));
+
+        List<Document> rows = mongoTemplate.aggregate(aggregation, Transaction.class, Document.class)
+                .getMappedResults();
+        return rows.stream().collect(Collectors.toMap(
+                row -> row.getString("_id"),
+                row -> ((Number) row.get("net")).longValue()));
+    }
+}
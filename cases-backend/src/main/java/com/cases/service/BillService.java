@@ -1,34 +1,73 @@
 package com.cases.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.cases.dto.BillBatchResponseDto;
+import com.cases.dto.BillBatchRowResultDto;
+import com.cases.dto.BillFilterDto;
 import com.cases.dto.BillRequestDto;
 import com.cases.dto.BillResponseDto;
 import com.cases.dto.BillUpdateRequestDto;
+import com.cases.dto.PageDto;
+import com.cases.mapper.BillMapper;
 import com.cases.model.Bill;
 import com.cases.model.BillItem;
 import com.cases.model.Customer;
+import com.cases.model.Money;
 import com.cases.model.Transaction;
 import com.cases.repository.BillRepository;
 import com.cases.repository.CustomerRepository;
 import com.cases.repository.TransactionRepository;
 
+import com.mongodb.bulk.BulkWriteError;
+
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class BillService {
 
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "invoice", "invoiceNumber",
+            "date", "date",
+            "total", "grandTotal");
+
     private final BillRepository billRepository;
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final MongoTemplate mongoTemplate;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final CustomerBalanceService customerBalanceService;
+    private final DailyRollupService dailyRollupService;
+    private final ParallelCalls parallelCalls;
+    private final BillMapper billMapper;
 
     public BillResponseDto createBill(BillRequestDto request) {
         Optional<Customer> optionalCustomer = customerRepository.findById(request.getCustomerId());
@@ -36,39 +75,170 @@ public class BillService {
             throw new RuntimeException("Customer not found");
         }
 
-        int latestInvoiceNumber = billRepository.findTopByOrderByInvoiceNumberDesc()
-                .map(b -> b.getInvoiceNumber() + 1)
-                .orElse(1001);
+        int latestInvoiceNumber = invoiceNumberAllocator.next();
+
+        Customer customer = optionalCustomer.get();
+
+        Bill bill = newBill(customer, latestInvoiceNumber, request);
+        bill.setDueDate(LocalDate.now());
+
+        Bill saved = billRepository.save(bill);
+
+        transactionRepository.save(billTransaction(saved, customer));
+        dailyRollupService.add(DailyRollupService.SALES, saved.getDate(), saved.getGrandTotal());
+
+        // Update customer balance
+        customerBalanceService.applyDelta(customer.getId(), request.getGrandTotal().negate());
+        balanceCheckpointService.invalidateFrom(customer.getId(), bill.getDate());
+
+        return billMapper.toDto(saved);
+    }
+
+    // Imports many bills with a constant number of round-trips: one customer lookup, one counter
+    // update, one bulk insert per collection and one balance update per customer
+    public BillBatchResponseDto createBills(List<BillRequestDto> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " bills per batch");
+        }
+
+        BillBatchRowResultDto[] results = new BillBatchRowResultDto[requests.size()];
+
+        Set<String> customerIds = requests.stream()
+                .map(BillRequestDto::getCustomerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<Integer> validRows = new ArrayList<>();
+        for (int row = 0; row < requests.size(); row++) {
+            BillRequestDto request = requests.get(row);
+            if (request.getCustomerId() == null || !customers.containsKey(request.getCustomerId())) {
+                results[row] = failedRow(row, "Customer not found");
+            } else if (request.getGrandTotal() == null) {
+                results[row] = failedRow(row, "grandTotal is required");
+            } else {
+                validRows.add(row);
+            }
+        }
+
+        Map<Integer, Bill> bills = new LinkedHashMap<>();
+        if (!validRows.isEmpty()) {
+            int invoiceNumber = invoiceNumberAllocator.reserveBlock(validRows.size());
+            for (int row : validRows) {
+                BillRequestDto request = requests.get(row);
+                Bill bill = newBill(customers.get(request.getCustomerId()), invoiceNumber++, request);
+                bill.setId(new ObjectId().toHexString()); // known up front so transactions can reference it
+                bill.setVersion(0L); // bulk inserts do not initialise @Version the way save() does
+                bill.setDueDate(request.getDueDate() != null ? request.getDueDate() : LocalDate.now());
+                bills.put(row, bill);
+            }
+        }
+
+        // Bills first; a bill only gets its ledger entry once it is stored
+        List<String> builtBillIds = bills.values().stream().map(Bill::getId).toList();
+        insertAll(bills, Bill.class, results);
+
+        Map<Integer, Transaction> transactions = new LinkedHashMap<>();
+        bills.forEach((row, bill) -> {
+            Transaction transaction = billTransaction(bill, customers.get(bill.getCustomerId()));
+            transaction.setVersion(0L);
+            transactions.put(row, transaction);
+        });
+        insertAll(transactions, Transaction.class, results);
+
+        // Roll back bills whose transaction could not be written. After a failed insert (a timeout, a
+        // dropped connection) some documents may be stored all the same, so every bill built for a failed
+        // row goes, together with any ledger entry that made it in for it.
+        Set<String> keptBillIds = transactions.values().stream()
+                .map(Transaction::getRelatedBillId)
+                .collect(Collectors.toSet());
+        List<String> orphanedBillIds = builtBillIds.stream()
+                .filter(id -> !keptBillIds.contains(id))
+                .toList();
+        if (!orphanedBillIds.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(orphanedBillIds)), Bill.class);
+            mongoTemplate.remove(Query.query(Criteria.where("relatedBillId").in(orphanedBillIds)), Transaction.class);
+            bills.keySet().retainAll(transactions.keySet());
+        }
+
+        // One balance update per customer for the whole batch
+        Map<String, Money> deltas = new HashMap<>();
+        Map<String, LocalDate> earliestDates = new HashMap<>();
+        List<DailyRollupService.Delta> sales = new ArrayList<>();
+        for (Map.Entry<Integer, Bill> entry : bills.entrySet()) {
+            Bill bill = entry.getValue();
+            deltas.merge(bill.getCustomerId(), bill.getGrandTotal().negate(), Money::plus);
+            earliestDates.merge(bill.getCustomerId(), bill.getDate(), (a, b) -> a.isBefore(b) ? a : b);
+            sales.add(DailyRollupService.Delta.add(DailyRollupService.SALES, bill.getDate(), bill.getGrandTotal()));
+            results[entry.getKey()] = BillBatchRowResultDto.builder()
+                    .row(entry.getKey())
+                    .created(true)
+                    .billId(bill.getId())
+                    .invoiceNumber(bill.getInvoiceNumber())
+                    .build();
+        }
+        deltas.forEach(customerBalanceService::applyDelta);
+        earliestDates.forEach(balanceCheckpointService::invalidateFrom);
+        dailyRollupService.apply(sales);
+
+        return new BillBatchResponseDto(bills.size(), requests.size() - bills.size(), Arrays.asList(results));
+    }
 
+    // Unordered bulk insert; rows the server rejects are dropped from the map and reported. Any other
+    // failure leaves it unknown what was stored, so every row is reported failed for the caller to undo.
+    private <T> void insertAll(Map<Integer, T> rows, Class<T> type, BillBatchRowResultDto[] results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Integer> rowNumbers = new ArrayList<>(rows.keySet());
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type)
+                    .insert(new ArrayList<>(rows.values()))
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                int row = rowNumbers.get(error.getIndex());
+                rows.remove(row);
+                results[row] = failedRow(row, error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            rowNumbers.forEach(row -> results[row] = failedRow(row, "Not saved: " + e.getMessage()));
+            rows.clear();
+        }
+    }
+
+    private BillBatchRowResultDto failedRow(int row, String error) {
+        return BillBatchRowResultDto.builder().row(row).created(false).error(error).build();
+    }
+
+    private Bill newBill(Customer customer, int invoiceNumber, BillRequestDto request) {
         Bill bill = new Bill();
-        bill.setCustomer(optionalCustomer.get());
-        bill.setInvoiceNumber(latestInvoiceNumber);
+        bill.setCustomer(customer);
+        bill.setCustomerId(customer.getId());
+        bill.setCustomerName(customer.getName());
+        bill.setInvoiceNumber(invoiceNumber);
         bill.setItems(request.getItems());
         bill.setTotalQty(request.getTotalQty());
         bill.setGrandTotal(request.getGrandTotal());
         bill.setDate(request.getDate() != null ? request.getDate() : LocalDate.now());
-        bill.setDueDate(LocalDate.now());
-
-        Bill saved = billRepository.save(bill);
+        return bill;
+    }
 
-        Transaction transaction = Transaction.builder()
-                .customer(optionalCustomer.get())
-                .amount(request.getGrandTotal())
+    private Transaction billTransaction(Bill bill, Customer customer) {
+        return Transaction.builder()
+                .customer(customer)
+                .customerId(customer.getId())
+                .customerName(customer.getName())
+                .amount(bill.getGrandTotal())
                 .type("debit")
-                .description("Bill Invoice #" + latestInvoiceNumber)
+                .description("Bill Invoice #" + bill.getInvoiceNumber())
                 .date(bill.getDate())
-                .relatedBill(saved) // ✅ Reference full Bill object, not ID
-                .invoiceNumber(latestInvoiceNumber)
+                .relatedBill(bill) // ✅ Reference full Bill object, not ID
+                .relatedBillId(bill.getId())
+                .invoiceNumber(bill.getInvoiceNumber())
                 .build();
-
-        transactionRepository.save(transaction);
-
-        // Update customer balance
-        Customer customer = optionalCustomer.get();
-        customer.setBalance(customer.getBalance() - request.getGrandTotal());
-        customerRepository.save(customer);
-
-        return convertToDto(saved);
     }
 
     public List<BillResponseDto> getAllBills(String startDate, String endDate) {
@@ -79,35 +249,164 @@ public class BillService {
             LocalDate end = LocalDate.parse(endDate).plusDays(1); // inclusive
             bills = billRepository.findByDateBetween(start, end);
         } else {
-            bills = billRepository.findAll();
+            bills = billRepository.findAllLean();
         }
 
         return bills.stream()
-                .map(this::convertToDto)
+                .map(billMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Bills matching every filter that is set, sorted on the server and capped at
+     * maxResults. One more row than the cap is read so the caller can tell a
+     * truncated result from a complete one.
+     */
+    public List<BillResponseDto> findBills(BillFilterDto filter, int maxResults) {
+        Query query = billQuery(filter).limit(maxResults + 1);
+        query.fields().exclude("customer");
+
+        return mongoTemplate.find(query, Bill.class).stream()
+                .map(billMapper::toDto)
+                .toList();
+    }
+
+    // Every bill matching the filter, in its sort order, items left out; built ahead of streamBills so
+    // an invalid sort fails before an export has written anything
+    public Query billExportQuery(BillFilterDto filter) {
+        Query query = billQuery(filter).allowDiskUse(true);
+        query.fields().exclude("customer", "items");
+        return query;
+    }
+
+    public void streamBills(Query query, Consumer<BillResponseDto> sink) {
+        try (Stream<Bill> bills = mongoTemplate.stream(query, Bill.class)) {
+            bills.forEach(bill -> sink.accept(billMapper.toDto(bill)));
+        }
+    }
+
+    private static Query billQuery(BillFilterDto filter) {
+        List<Criteria> filters = new ArrayList<>();
+
+        if (filter.getCustomerId() != null) {
+            filters.add(Criteria.where("customerId").is(filter.getCustomerId()));
+        }
+        if (filter.getStartDate() != null && filter.getEndDate() != null) {
+            LocalDate start = LocalDate.parse(filter.getStartDate());
+            LocalDate end = LocalDate.parse(filter.getEndDate()).plusDays(1); // inclusive
+            filters.add(Criteria.where("date").gte(start).lt(end));
+        }
+        if (filter.getMinTotal() != null || filter.getMaxTotal() != null) {
+            Criteria total = Criteria.where("grandTotal");
+            if (filter.getMinTotal() != null) {
+                total.gte(filter.getMinTotal().paise());
+            }
+            if (filter.getMaxTotal() != null) {
+                total.lte(filter.getMaxTotal().paise());
+            }
+            filters.add(total);
+        }
+        if (filter.getInvoiceFrom() != null || filter.getInvoiceTo() != null) {
+            Criteria invoice = Criteria.where("invoiceNumber");
+            if (filter.getInvoiceFrom() != null) {
+                invoice.gte(filter.getInvoiceFrom());
+            }
+            if (filter.getInvoiceTo() != null) {
+                invoice.lte(filter.getInvoiceTo());
+            }
+            filters.add(invoice);
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        return query.with(billSort(filter.getSort()));
+    }
+
+    // "total", "-date", ...; invoice number breaks ties so the order is stable
+    private static Sort billSort(String sort) {
+        String key = sort == null || sort.isBlank() ? "-invoice" : sort.trim();
+        Sort.Direction direction = key.startsWith("-") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String field = SORT_FIELDS.get(key.startsWith("-") ? key.substring(1) : key);
+        if (field == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "sort must be one of invoice, date, total, optionally prefixed with '-'");
+        }
+        Sort order = Sort.by(direction, field);
+        return field.equals("invoiceNumber") ? order : order.and(Sort.by(direction, "invoiceNumber"));
+    }
+
+    // Newest invoice first; the cursor is the last invoice number of the previous page
+    public PageDto<BillResponseDto> getBillsPage(int limit, String cursor, String startDate, String endDate) {
+        int pageSize = PageCursor.clamp(limit);
+        List<Criteria> filters = new ArrayList<>();
+
+        if (startDate != null && endDate != null) {
+            LocalDate start = LocalDate.parse(startDate);
+            LocalDate end = LocalDate.parse(endDate).plusDays(1); // inclusive
+            filters.add(Criteria.where("date").gte(start).lt(end));
+        }
+        if (cursor != null) {
+            try {
+                filters.add(Criteria.where("invoiceNumber").lt(Integer.parseInt(PageCursor.decode(cursor))));
+            } catch (NumberFormatException e) {
+                throw PageCursor.invalid();
+            }
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "invoiceNumber")).limit(pageSize + 1);
+        query.fields().exclude("customer");
+
+        List<Bill> bills = mongoTemplate.find(query, Bill.class);
+        return PageCursor.page(bills, pageSize, b -> PageCursor.encode(b.getInvoiceNumber()),
+                billMapper::toDto);
+    }
+
+    // Just the version field; null both when there is no such bill and when it predates @Version
+    public Long getVersion(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version");
+        Bill bill = mongoTemplate.findOne(query, Bill.class);
+        return bill != null ? bill.getVersion() : null;
+    }
+
     public Optional<BillResponseDto> getBillById(String id) {
         return billRepository.findById(id)
-                .map(this::convertToDto);
+                .map(billMapper::toDto);
     }
 
     public List<BillResponseDto> getBillsByDueDate(LocalDate dueDate) {
         List<Bill> bills = billRepository.findByDueDate(dueDate);
         return bills.stream()
-                .map(this::convertToDto)
+                .map(billMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     public Map<String, Object> updateBill(String billId, BillUpdateRequestDto request) {
-        Bill bill = billRepository.findById(billId)
-                .orElseThrow(() -> new RuntimeException("Bill not found"));
+        Optional<Transaction> transactionOpt;
+        Bill bill;
+        try (ParallelCalls.Scope scope = parallelCalls.open()) {
+            Supplier<Optional<Bill>> billLookup = scope.fork(() -> billRepository.findById(billId));
+            Supplier<Optional<Transaction>> transactionLookup = scope
+                    .fork(() -> transactionRepository.findByRelatedBillId(billId));
+            scope.join();
+
+            bill = billLookup.get().orElseThrow(() -> new RuntimeException("Bill not found"));
+            transactionOpt = transactionLookup.get();
+        }
 
-        double oldGrandTotal = bill.getGrandTotal();
-        Customer oldCustomer = bill.getCustomer();
+        Money oldGrandTotal = bill.getGrandTotal();
+        String oldCustomerId = bill.getCustomerId();
+        LocalDate oldDate = bill.getDate();
+        boolean customerChanged = request.getCustomerId() != null && !request.getCustomerId().equals(oldCustomerId);
 
         List<BillItem> updatedItems = request.getItems();
-        double newGrandTotal = request.getGrandTotal();
+        Money newGrandTotal = request.getGrandTotal();
 
         bill.setItems(updatedItems);
         bill.setTotalQty(request.getTotalQty());
@@ -122,29 +421,29 @@ public class BillService {
             bill.setDueDate(request.getDueDate());
         }
 
+        Money updatedBalance;
+
         // Handle customer update if provided and different from current
-        if (request.getCustomerId() != null && !request.getCustomerId().equals(oldCustomer.getId())) {
+        if (customerChanged) {
             // Get new customer
             Customer newCustomer = customerRepository.findById(request.getCustomerId())
                     .orElseThrow(() -> new RuntimeException("New customer not found"));
 
-            // Update balances
-            oldCustomer.setBalance(oldCustomer.getBalance() + oldGrandTotal); // Undo old bill
-            newCustomer.setBalance(newCustomer.getBalance() - newGrandTotal); // Apply new bill
-
-            customerRepository.save(oldCustomer);
-            customerRepository.save(newCustomer);
+            // Update balances one after the other: a write cannot be cancelled once it has landed,
+            // so a missing old customer must fail before the new one is charged
+            customerBalanceService.applyDelta(oldCustomerId, oldGrandTotal); // Undo old bill
+            updatedBalance = customerBalanceService.applyDelta(newCustomer.getId(), newGrandTotal.negate()); // Apply new bill
 
             bill.setCustomer(newCustomer);
+            bill.setCustomerId(newCustomer.getId());
+            bill.setCustomerName(newCustomer.getName());
         } else {
             // No customer change, update old customer balance normally
-            oldCustomer.setBalance(oldCustomer.getBalance() + (oldGrandTotal - newGrandTotal));
-            customerRepository.save(oldCustomer);
+            updatedBalance = customerBalanceService.applyDelta(oldCustomerId, oldGrandTotal.minus(newGrandTotal));
         }
 
-        billRepository.save(bill);
-
-        Optional<Transaction> transactionOpt = transactionRepository.findByRelatedBill_Id(billId);
+        Money oldTransactionAmount = transactionOpt.map(Transaction::getAmount).orElse(Money.ZERO);
+        LocalDate oldTransactionDate = transactionOpt.map(Transaction::getDate).orElse(null);
 
         transactionOpt.ifPresent(transaction -> {
             transaction.setAmount(newGrandTotal);
@@ -154,18 +453,27 @@ public class BillService {
             }
 
             // If customer changed, update transaction's customer too
-            if (request.getCustomerId() != null && !request.getCustomerId().equals(oldCustomer.getId())) {
+            if (customerChanged) {
                 transaction.setCustomer(bill.getCustomer());
+                transaction.setCustomerId(bill.getCustomerId());
+                transaction.setCustomerName(bill.getCustomerName());
             }
-
-            transactionRepository.save(transaction);
         });
 
+        // Ledger entry first, bill last, so the bill never points at a customer whose writes failed
+        transactionOpt.ifPresent(transactionRepository::save);
+        billRepository.save(bill);
+
+        transactionOpt.ifPresent(transaction -> dailyRollupService.move(DailyRollupService.SALES,
+                oldTransactionDate, oldTransactionAmount, transaction.getDate(), transaction.getAmount()));
+        balanceCheckpointService.invalidateFrom(oldCustomerId, oldDate);
+        balanceCheckpointService.invalidateFrom(bill.getCustomerId(), bill.getDate());
+
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Bill, transaction, and customer balance updated.");
         response.put("bill", bill);
         transactionOpt.ifPresent(t -> response.put("transaction", t));
-        response.put("updatedBalance", bill.getCustomer().getBalance());
+        response.put("updatedBalance", updatedBalance);
 
         return response;
     }
@@ -174,36 +482,22 @@ public class BillService {
         Bill bill = billRepository.findById(billId)
                 .orElseThrow(() -> new RuntimeException("Bill not found"));
 
-        Optional<Transaction> transactionOpt = transactionRepository.findByRelatedBill_Id(billId);
+        Optional<Transaction> transactionOpt = transactionRepository.findByRelatedBillId(billId);
 
-        Customer customer = customerRepository.findById(bill.getCustomer().getId())
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        // Update customer balance first so a missing customer leaves the bill in place
+        Money updatedBalance = customerBalanceService.applyDelta(bill.getCustomerId(), bill.getGrandTotal());
 
         // Delete bill and transaction
         billRepository.delete(bill);
-        transactionOpt.ifPresent(transactionRepository::delete);
-
-        // Update customer balance
-        customer.setBalance(customer.getBalance() + bill.getGrandTotal());
-        customerRepository.save(customer);
+        transactionOpt.ifPresent(transaction -> {
+            transactionRepository.delete(transaction);
+            dailyRollupService.remove(DailyRollupService.SALES, transaction.getDate(), transaction.getAmount());
+        });
+        balanceCheckpointService.invalidateFrom(bill.getCustomerId(), bill.getDate());
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Bill deleted, transaction removed, customer balance updated.");
-        response.put("updatedBalance", customer.getBalance());
+        response.put("updatedBalance", updatedBalance);
         return response;
     }
-
-    private BillResponseDto convertToDto(Bill bill) {
-        return BillResponseDto.builder()
-                .id(bill.getId())
-                .invoiceNumber(bill.getInvoiceNumber())
-                .customerId(bill.getCustomer().getId())
-                .customerName(bill.getCustomer().getName())
-                .date(bill.getDate())
-                .items(bill.getItems())
-                .totalQty(bill.getTotalQty())
-                .grandTotal(bill.getGrandTotal())
-                .dueDate(bill.getDueDate())
-                .build();
-    }
 }
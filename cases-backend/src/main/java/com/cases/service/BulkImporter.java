@@ -0,0 +1,174 @@
+package com.cases.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.cases.dto.ImportLineErrorDto;
+import com.cases.dto.ImportResultDto;
+import com.mongodb.bulk.BulkWriteError;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the rows of an upload in unordered bulk inserts of
+ * cases.import.batch-size documents, each on its own virtual thread, while
+ * the caller goes on parsing.
+ *
+ * <pre>
+ * try (BulkImporter.Batches&lt;Customer&gt; batches = bulkImporter.open(Customer.class,
+ *         stored -&gt; stored.forEach(searchIndex::put))) {
+ *     for (each row) {
+ *         if (valid) batches.add(line, customer); else batches.reject(line, "Name is required");
+ *     }
+ *     return batches.finish();
+ * }
+ * </pre>
+ *
+ * At most cases.import.max-in-flight-batches inserts run at once; add() blocks
+ * when that many are pending, so a fast parser never queues more than a few
+ * batches in memory. Rows the server rejects (a duplicate key, say) are
+ * reported against their line, and onInserted gets the rows of each batch
+ * that were stored. Leaving the block waits for every pending insert.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkImporter implements DisposableBean {
+
+    static final int MAX_REPORTED_ERRORS = 500;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${cases.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cases.import.max-in-flight-batches:4}")
+    private int maxInFlightBatches;
+
+    public <T> Batches<T> open(Class<T> type, Consumer<List<T>> onInserted) {
+        return new Batches<>(type, onInserted);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public final class Batches<T> implements AutoCloseable {
+
+        private final Class<T> type;
+        private final Consumer<List<T>> onInserted;
+        private final Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger reported = new AtomicInteger();
+        private final Queue<ImportLineErrorDto> errors = new ConcurrentLinkedQueue<>();
+        private List<T> documents = new ArrayList<>();
+        private List<Long> lines = new ArrayList<>();
+
+        private Batches(Class<T> type, Consumer<List<T>> onInserted) {
+            this.type = type;
+            this.onInserted = onInserted;
+        }
+
+        public void add(long line, T document) {
+            documents.add(document);
+            lines.add(line);
+            if (documents.size() == batchSize) {
+                submit();
+            }
+        }
+
+        public void reject(long line, String error) {
+            failed.incrementAndGet();
+            if (reported.getAndIncrement() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportLineErrorDto(line, error));
+            }
+        }
+
+        // Writes the last partial batch, waits for all of them and sums up
+        public ImportResultDto finish() {
+            if (!documents.isEmpty()) {
+                submit();
+            }
+            close();
+            List<ImportLineErrorDto> byLine = new ArrayList<>(errors);
+            byLine.sort(Comparator.comparingLong(ImportLineErrorDto::getLine));
+            return new ImportResultDto(created.get(), failed.get(), byLine);
+        }
+
+        @Override
+        public void close() {
+            inFlight.acquireUninterruptibly(maxInFlightBatches);
+            inFlight.release(maxInFlightBatches);
+        }
+
+        private void submit() {
+            List<T> batch = documents;
+            List<Long> batchLines = lines;
+            documents = new ArrayList<>();
+            lines = new ArrayList<>();
+
+            inFlight.acquireUninterruptibly(); // parsing waits here while the database catches up
+            executor.execute(() -> {
+                try {
+                    insert(batch, batchLines);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private void insert(List<T> batch, List<Long> batchLines) {
+            Set<Integer> rejected = new HashSet<>();
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(batch).execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    rejected.add(error.getIndex());
+                    reject(batchLines.get(error.getIndex()),
+                            error.getCode() == DUPLICATE_KEY ? "Already exists" : error.getMessage());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Import batch of {} {} rows failed: {}", batch.size(), type.getSimpleName(), e.getMessage());
+                batchLines.forEach(line -> reject(line, "Not saved: " + e.getMessage()));
+                return;
+            }
+
+            List<T> stored = new ArrayList<>(batch.size() - rejected.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!rejected.contains(i)) {
+                    stored.add(batch.get(i));
+                }
+            }
+            created.addAndGet(stored.size());
+            try {
+                onInserted.accept(stored);
+            } catch (RuntimeException e) {
+                log.warn("Follow-up of an import batch of {} {} rows failed: {}", stored.size(),
+                        type.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.cases.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.cases.config.CacheConfig;
+import com.cases.model.Counter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Change counters kept next to the invoice number in the "counters"
+ * collection. Writers bump a counter after they change what it covers; a
+ * read compares the current value with the ETag it handed out earlier and
+ * can answer 304 from a single lookup by _id.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeCounterService {
+
+    // Any customer created, edited, deleted or re-balanced
+    public static final String CUSTOMERS = "changes:customers";
+
+    // Any ledger row of any customer; bumped by BalanceCheckpointService.invalidateFrom, after the write
+    public static final String LEDGER = "changes:ledger";
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+
+    // Ledger rows of one customer, i.e. everything their statement is built from
+    public static String ledger(String customerId) {
+        return "changes:transaction:" + customerId;
+    }
+
+    /**
+     * Evicts this node's cached customers and bumps CUSTOMERS. The cached
+     * copies carry the counter or version they were read at and their ETags
+     * are built from that, so a copy is never paired with a newer ETag; the
+     * callers' own @CacheEvict runs again once they return, so this node does
+     * not keep serving a copy read while the write was in progress.
+     */
+    public void customersChanged(String customerId) {
+        if (customerId != null) {
+            evict(CacheConfig.CUSTOMERS, customerId);
+        }
+        Cache list = cacheManager.getCache(CacheConfig.CUSTOMER_LIST);
+        if (list != null) {
+            list.clear();
+        }
+        bump(CUSTOMERS);
+    }
+
+    public void bump(String name) {
+        mongoTemplate.upsert(byId(name), new Update().inc("seq", 1), Counter.class);
+    }
+
+    public long current(String name) {
+        Query query = byId(name);
+        query.fields().include("seq");
+        Counter counter = mongoTemplate.findOne(query, Counter.class);
+        return counter != null ? counter.getSeq() : 0;
+    }
+
+    // Quoted by Spring when it is written to the response
+    public String etag(String name) {
+        return etag(name, current(name));
+    }
+
+    // The ETag for a counter value read earlier, e.g. the one cached with a response body
+    public static String etag(String name, long value) {
+        return name.substring(name.indexOf(':') + 1).replace(':', '-') + "-" + value;
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private static Query byId(String name) {
+        return Query.query(Criteria.where("_id").is(name));
+    }
+}
@@ -0,0 +1,52 @@
+package com.cases.service;
+
+import java.time.LocalDate;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.cases.config.CacheConfig;
+import com.cases.model.Customer;
+import com.cases.model.Money;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The only code path that changes Customer.balance. Deltas are applied with an
+ * atomic $inc, so concurrent bills and payments for one customer never overwrite
+ * each other, and only the balance field is written.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerBalanceService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeCounterService changeCounters;
+
+    // Positive delta for payments and reversed bills, negative for bills; returns the balance after the update
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#customerId"),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_LIST, allEntries = true) })
+    public Money applyDelta(String customerId, Money delta) {
+        Query query = Query.query(Criteria.where("_id").is(customerId));
+        query.fields().include("balance");
+
+        Customer updated = mongoTemplate.findAndModify(
+                query,
+                new Update().inc("balance", delta.paise()).set("updatedAt", LocalDate.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Customer.class);
+
+        if (updated == null) {
+            throw new RuntimeException("Customer not found with ID: " + customerId);
+        }
+        changeCounters.customersChanged(customerId);
+        return updated.getBalance();
+    }
+}
@@ -0,0 +1,274 @@
+package com.cases.service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.cases.dto.CustomerSearchHitDto;
+import com.cases.model.Customer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory type-ahead over customer names and phone numbers.
+ *
+ * Every customer is filed under its search keys (see keysOf) in a sorted map,
+ * so a prefix lookup is a range scan that stops after limit customers. When
+ * the prefix finds too few, keys that start with the same letter and are
+ * within one or two edits of the query fill the rest. CustomerService keeps the index current on create, update and
+ * delete; writes made on other nodes arrive with the periodic rebuild
+ * (cases.customer-search.refresh-interval). Writes that land while a rebuild
+ * is reading Mongo are recorded and replayed onto the new index before it is
+ * swapped in, so the stream cannot undo them. Until the first build finishes
+ * search() returns empty and the caller asks Mongo instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerSearchIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cases.customer-search.refresh-interval:60s}")
+    private Duration refreshInterval = Duration.ofSeconds(60);
+
+    private final AtomicBoolean building = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private volatile Entries entries;
+    private volatile long builtAtNanos;
+    private List<Consumer<Entries>> writesDuringBuild; // guarded by writeLock; non-null while a rebuild reads
+
+    // key + '\0' + id -> hit, plus the keys each customer is filed under so they can be dropped on update
+    private record Entries(NavigableMap<String, CustomerSearchHitDto> byKey, Map<String, List<String>> keysById) {
+        Entries() {
+            this(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    // Lowercase, accents stripped, every run of punctuation or spaces collapsed to one space
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return decomposed.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    // The whole name, each word of it, and the phone as bare digits
+    public static List<String> keysOf(String name, String phone) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalizedName = normalize(name);
+        if (!normalizedName.isEmpty()) {
+            keys.add(normalizedName);
+            for (String word : normalizedName.split(" ")) {
+                keys.add(word);
+            }
+        }
+        String digits = phone == null ? "" : phone.replaceAll("\\D", "");
+        if (!digits.isEmpty()) {
+            keys.add(digits);
+        }
+        return new ArrayList<>(keys);
+    }
+
+    public Optional<List<CustomerSearchHitDto>> search(String query, int limit) {
+        Entries current = entries;
+        if (current == null || System.nanoTime() - builtAtNanos > refreshInterval.toNanos()) {
+            rebuildInBackground();
+        }
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        Map<String, CustomerSearchHitDto> hits = new LinkedHashMap<>();
+        for (Map.Entry<String, CustomerSearchHitDto> entry : current.byKey()
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            hits.putIfAbsent(entry.getValue().getId(), entry.getValue());
+            if (hits.size() == limit) {
+                return Optional.of(new ArrayList<>(hits.values()));
+            }
+        }
+
+        if (prefix.length() >= MIN_FUZZY_LENGTH) {
+            fuzzyMatches(current, prefix, limit - hits.size(), hits.keySet())
+                    .forEach(hit -> hits.putIfAbsent(hit.getId(), hit));
+        }
+        return Optional.of(new ArrayList<>(hits.values()));
+    }
+
+    public void put(Customer customer) {
+        apply(target -> {
+            remove(target, customer.getId());
+            add(target, customer);
+        });
+    }
+
+    public void remove(String customerId) {
+        apply(target -> remove(target, customerId));
+    }
+
+    // One full read of (id, name, phone, address); the old index keeps serving until the new one is swapped in
+    public void rebuild() {
+        Query query = new Query();
+        query.fields().include("name", "phone", "address");
+        rebuild(() -> mongoTemplate.stream(query, Customer.class));
+    }
+
+    // Recording starts before the read does, so a write either reaches Mongo ahead of the read or is replayed
+    synchronized void rebuild(Supplier<Stream<Customer>> source) {
+        synchronized (writeLock) {
+            writesDuringBuild = new ArrayList<>();
+        }
+        try (Stream<Customer> customers = source.get()) {
+            Entries fresh = new Entries();
+            customers.forEach(customer -> add(fresh, customer));
+            synchronized (writeLock) {
+                writesDuringBuild.forEach(write -> write.accept(fresh));
+                entries = fresh;
+                builtAtNanos = System.nanoTime();
+            }
+            log.debug("Customer search index built with {} customers", fresh.keysById().size());
+        } finally {
+            synchronized (writeLock) {
+                writesDuringBuild = null;
+            }
+        }
+    }
+
+    // To the index being served, if any, and to the one being built, if any
+    private void apply(Consumer<Entries> write) {
+        synchronized (writeLock) {
+            if (entries != null) {
+                write.accept(entries);
+            }
+            if (writesDuringBuild != null) {
+                writesDuringBuild.add(write);
+            }
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("customer-search-index").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Customer search index rebuild failed: {}", e.getMessage());
+            } finally {
+                building.set(false);
+            }
+        });
+    }
+
+    private static void add(Entries target, Customer customer) {
+        CustomerSearchHitDto hit = new CustomerSearchHitDto(customer.getId(), customer.getName(),
+                customer.getPhone(), customer.getAddress());
+        List<String> keys = keysOf(customer.getName(), customer.getPhone());
+        target.keysById().put(customer.getId(), keys);
+        for (String key : keys) {
+            target.byKey().put(key + KEY_SEPARATOR + customer.getId(), hit);
+        }
+    }
+
+    private static void remove(Entries target, String customerId) {
+        List<String> keys = target.keysById().remove(customerId);
+        if (keys != null) {
+            for (String key : keys) {
+                target.byKey().remove(key + KEY_SEPARATOR + customerId);
+            }
+        }
+    }
+
+    // Customers with a key whose start is within one edit of the query (two from six characters on), closest first.
+    // Only keys sharing the query's first letter are tried: that range is a small slice of the map rather
+    // than every key on each keystroke, at the cost of not catching a typo in the first letter.
+    private static List<CustomerSearchHitDto> fuzzyMatches(Entries current, String query, int limit, Set<String> skip) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        int maxDistance = query.length() >= 6 ? 2 : 1;
+        Map<String, Integer> distances = new HashMap<>();
+        Map<String, CustomerSearchHitDto> candidates = new LinkedHashMap<>();
+
+        String first = query.substring(0, 1);
+        for (Map.Entry<String, CustomerSearchHitDto> entry : current.byKey()
+                .subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+            CustomerSearchHitDto hit = entry.getValue();
+            if (skip.contains(hit.getId())) {
+                continue;
+            }
+            String key = entry.getKey().substring(0, entry.getKey().indexOf(KEY_SEPARATOR));
+            int distance = prefixDistance(query, key, maxDistance);
+            if (distance <= maxDistance && distance < distances.getOrDefault(hit.getId(), Integer.MAX_VALUE)) {
+                distances.put(hit.getId(), distance);
+                candidates.put(hit.getId(), hit);
+            }
+        }
+        return candidates.values().stream()
+                .sorted(Comparator.comparingInt((CustomerSearchHitDto hit) -> distances.get(hit.getId()))
+                        .thenComparing(CustomerSearchHitDto::getName, Comparator.nullsLast(String::compareTo)))
+                .limit(limit)
+                .toList();
+    }
+
+    // Smallest edit distance between the query and any prefix of the key; stops early above max
+    static int prefixDistance(String query, String key, int max) {
+        int[] previous = new int[key.length() + 1];
+        int[] row = new int[key.length() + 1];
+        for (int j = 0; j <= key.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            row[0] = i;
+            int rowMin = row[0];
+            for (int j = 1; j <= key.length(); j++) {
+                int cost = query.charAt(i - 1) == key.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int value : previous) {
+            best = Math.min(best, value);
+        }
+        return best;
+    }
+}
@@ -1,13 +1,38 @@
 package com.cases.service;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import org.springframework.beans.BeanUtils;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.cases.config.CacheConfig;
+import com.cases.csv.CsvReader;
 import com.cases.dto.CustomerRequestDto;
 import com.cases.dto.CustomerResponseDto;
+import com.cases.dto.CustomerSearchHitDto;
+import com.cases.dto.ImportResultDto;
+import com.cases.dto.PageDto;
+import com.cases.dto.VersionedDto;
+import com.cases.mapper.CustomerMapper;
+import com.cases.model.Bill;
 import com.cases.model.Customer;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
 import com.cases.repository.CustomerRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -16,8 +41,16 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CustomerService {
 
+    private static final int MAX_SEARCH_HITS = 50;
+
     private final CustomerRepository customerRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CustomerMapper customerMapper;
+    private final ChangeCounterService changeCounters;
+    private final CustomerSearchIndex searchIndex;
+    private final BulkImporter bulkImporter;
 
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMER_LIST, allEntries = true)
     public CustomerResponseDto createCustomer(CustomerRequestDto requestDto) {
         if (customerRepository.existsByName(requestDto.getName())) {
             throw new RuntimeException("Customer with name already exists!");
@@ -27,48 +60,183 @@ public class CustomerService {
                 .name(requestDto.getName())
                 .phone(requestDto.getPhone())
                 .address(requestDto.getAddress())
-                .balance(0)
+                .balance(Money.ZERO)
+                .searchKeys(CustomerSearchIndex.keysOf(requestDto.getName(), requestDto.getPhone()))
                 .build();
 
         Customer savedCustomer = customerRepository.save(customer);
-        return convertToResponseDto(savedCustomer);
+        changeCounters.customersChanged(null);
+        searchIndex.put(savedCustomer);
+        return customerMapper.toResponseDto(savedCustomer);
+    }
+
+    /**
+     * Creates a customer for every row of a CSV with name, phone and address
+     * columns. Names are checked against one read of the existing names (plus
+     * the names seen earlier in the file) instead of a lookup per row; the
+     * unique index still catches a customer created elsewhere meanwhile.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMER_LIST, allEntries = true)
+    public ImportResultDto importCustomers(InputStream csvFile) {
+        CsvReader csv = new CsvReader(csvFile);
+        if (!csv.readHeader() || !csv.hasColumn("name")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The first line must be a header with a name column");
+        }
+
+        Query allNames = new Query();
+        allNames.fields().include("name");
+        Set<String> names = new HashSet<>();
+        try (Stream<Customer> customers = mongoTemplate.stream(allNames, Customer.class)) {
+            customers.forEach(customer -> names.add(customer.getName()));
+        }
+
+        ImportResultDto result;
+        try (BulkImporter.Batches<Customer> batches = bulkImporter.open(Customer.class,
+                stored -> stored.forEach(searchIndex::put))) {
+            LocalDate today = LocalDate.now();
+            try {
+                for (List<String> row = csv.next(); row != null; row = csv.next()) {
+                    String name = csv.get(row, "name");
+                    String phone = csv.get(row, "phone");
+                    if (name == null) {
+                        batches.reject(csv.line(), "Name is required");
+                    } else if (!names.add(name)) {
+                        batches.reject(csv.line(), "Customer with name already exists!");
+                    } else {
+                        batches.add(csv.line(), Customer.builder()
+                                .name(name)
+                                .phone(phone)
+                                .address(csv.get(row, "address"))
+                                .balance(Money.ZERO)
+                                .searchKeys(CustomerSearchIndex.keysOf(name, phone))
+                                .version(0L) // bulk inserts do not initialise @Version or the audit dates
+                                .createdAt(today)
+                                .updatedAt(today)
+                                .build());
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                batches.reject(csv.line(), e.getMessage()); // the rest of the file cannot be read
+            }
+            result = batches.finish();
+        }
+
+        if (result.getCreated() > 0) {
+            changeCounters.customersChanged(null);
+        }
+        return result;
+    }
+
+    // Cached together with the CUSTOMERS counter, read before the list, so an ETag made from a cached copy
+    // describes that copy and not a write on another node that this node's cache has not seen yet
+    @Cacheable(CacheConfig.CUSTOMER_LIST)
+    public VersionedDto<List<CustomerResponseDto>> getAllCustomers() {
+        long changes = changeCounters.current(ChangeCounterService.CUSTOMERS);
+        return new VersionedDto<>(changes, customerMapper.toResponseDtos(customerRepository.findAll()));
     }
 
-    public List<CustomerResponseDto> getAllCustomers() {
-        return customerRepository.findAll()
-                .stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+    // Alphabetical on (name, _id); the cursor carries both so equal names page correctly
+    public PageDto<CustomerResponseDto> getCustomersPage(int limit, String cursor) {
+        int pageSize = PageCursor.clamp(limit);
+        Query query = new Query();
+
+        if (cursor != null) {
+            String[] key = PageCursor.decodePair(cursor);
+            ObjectId id;
+            try {
+                id = new ObjectId(key[1]);
+            } catch (IllegalArgumentException e) {
+                throw PageCursor.invalid();
+            }
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("name").gt(key[0]),
+                    Criteria.where("name").is(key[0]).and("_id").gt(id)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "name", "_id")).limit(pageSize + 1);
+
+        List<Customer> customers = mongoTemplate.find(query, Customer.class);
+        return PageCursor.page(customers, pageSize, c -> PageCursor.encode(c.getName(), c.getId()),
+                customerMapper::toResponseDto);
     }
 
-    public CustomerResponseDto getCustomerById(String id) {
+    // Type-ahead on name or phone prefix, at most limit hits; Mongo answers until the in-memory index is built
+    public List<CustomerSearchHitDto> searchCustomers(String q, int limit) {
+        int max = Math.clamp(limit, 1, MAX_SEARCH_HITS);
+        return searchIndex.search(q, max).orElseGet(() -> searchCustomersInMongo(q, max));
+    }
+
+    private List<CustomerSearchHitDto> searchCustomersInMongo(String q, int limit) {
+        String prefix = CustomerSearchIndex.normalize(q);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        // normalize() leaves only letters, digits and spaces, so the prefix needs no escaping
+        Query query = Query.query(Criteria.where("searchKeys").regex("^" + prefix))
+                .with(Sort.by(Sort.Direction.ASC, "name"))
+                .limit(limit);
+        query.fields().include("name", "phone", "address");
+        return mongoTemplate.find(query, Customer.class).stream()
+                .map(c -> new CustomerSearchHitDto(c.getId(), c.getName(), c.getPhone(), c.getAddress()))
+                .toList();
+    }
+
+    // The customer with the version of the document it was mapped from, cached as a pair for the same reason
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
+    public VersionedDto<CustomerResponseDto> getCustomerById(String id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
-        return convertToResponseDto(customer);
+        return new VersionedDto<>(customer.getVersion(), customerMapper.toResponseDto(customer));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_LIST, allEntries = true) })
     public CustomerResponseDto updateCustomer(String id, CustomerRequestDto requestDto) {
-        Customer customer = customerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
+        // Only the contact fields are written; balance belongs to CustomerBalanceService
+        Customer customer = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .set("name", requestDto.getName())
+                        .set("phone", requestDto.getPhone())
+                        .set("address", requestDto.getAddress())
+                        .set("searchKeys", CustomerSearchIndex.keysOf(requestDto.getName(), requestDto.getPhone()))
+                        .set("updatedAt", LocalDate.now()),
+                Customer.class);
+        if (customer == null) {
+            throw new RuntimeException("Customer not found with ID: " + id);
+        }
 
-        customer.setName(requestDto.getName());
-        customer.setPhone(requestDto.getPhone());
-        customer.setAddress(requestDto.getAddress());
+        boolean renamed = !Objects.equals(customer.getName(), requestDto.getName());
 
-        Customer updatedCustomer = customerRepository.save(customer);
-        return convertToResponseDto(updatedCustomer);
+        // findAndModify returned the document as it was before the update
+        Customer updatedCustomer = customer.toBuilder()
+                .name(requestDto.getName())
+                .phone(requestDto.getPhone())
+                .address(requestDto.getAddress())
+                .updatedAt(LocalDate.now())
+                .build();
+
+        // Keep the name snapshots on bills and transactions in step
+        if (renamed) {
+            Query byCustomer = Query.query(Criteria.where("customerId").is(id));
+            Update rename = Update.update("customerName", updatedCustomer.getName());
+            mongoTemplate.updateMulti(byCustomer, rename, Bill.class);
+            mongoTemplate.updateMulti(byCustomer, rename, Transaction.class);
+        }
+        changeCounters.customersChanged(id);
+        searchIndex.put(updatedCustomer);
+        return customerMapper.toResponseDto(updatedCustomer);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_LIST, allEntries = true) })
     public void deleteCustomer(String id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
         customerRepository.delete(customer);
-    }
-
-    private CustomerResponseDto convertToResponseDto(Customer customer) {
-        CustomerResponseDto responseDto = new CustomerResponseDto();
-        BeanUtils.copyProperties(customer, responseDto);
-        return responseDto;
+        changeCounters.customersChanged(id);
+        searchIndex.remove(id);
     }
 
 }
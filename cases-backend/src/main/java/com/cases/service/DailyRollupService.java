@@ -0,0 +1,276 @@
+package com.cases.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.cases.dto.AmountTotalDto;
+import com.cases.model.Counter;
+import com.cases.model.DailyRollup;
+import com.cases.model.Expense;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-day and per-month {sum, count} documents for sales, payments and
+ * expenses, kept current with $inc from every write path. A range total reads
+ * the days of the partial months at either end plus one document per full
+ * month in between, so even a multi-year range touches ~100 small documents.
+ *
+ * Until {@link #tryRebuild()} has run once the rollups are incomplete, and
+ * {@link #total} returns empty so callers fall back to scanning the rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class DailyRollupService {
+
+    public static final String SALES = "sales";
+    public static final String PAYMENTS = "payments";
+    public static final String EXPENSES = "expenses";
+
+    private static final String DAY = "day";
+    private static final String MONTH = "month";
+    private static final String READY_MARKER = "meta:ready";
+    private static final String SCRATCH_COLLECTION = "daily_rollups_rebuild";
+    private static final String LEASE_ID = "lock:daily-rollups-rebuild";
+    private static final String LEASE_HOLDER = UUID.randomUUID().toString();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cases.rollups.rebuild-lease:10m}")
+    private Duration rebuildLease;
+
+    private volatile boolean ready;
+
+    public record Delta(String kind, LocalDate date, Money amount, int count) {
+
+        public static Delta add(String kind, LocalDate date, Money amount) {
+            return new Delta(kind, date, amount, 1);
+        }
+
+        public static Delta remove(String kind, LocalDate date, Money amount) {
+            return new Delta(kind, date, amount.negate(), -1);
+        }
+    }
+
+    // Ledger kind for a transaction type: debits are sales, credits are payments
+    public static String kindOf(String transactionType) {
+        if ("debit".equalsIgnoreCase(transactionType)) {
+            return SALES;
+        }
+        return "credit".equalsIgnoreCase(transactionType) ? PAYMENTS : null;
+    }
+
+    public void add(String kind, LocalDate date, Money amount) {
+        apply(List.of(Delta.add(kind, date, amount)));
+    }
+
+    public void remove(String kind, LocalDate date, Money amount) {
+        apply(List.of(Delta.remove(kind, date, amount)));
+    }
+
+    // Reverses the old date and amount and applies the new ones
+    public void move(String kind, LocalDate oldDate, Money oldAmount, LocalDate newDate, Money newAmount) {
+        apply(List.of(Delta.remove(kind, oldDate, oldAmount), Delta.add(kind, newDate, newAmount)));
+    }
+
+    // One unordered bulk write; deltas for the same day are merged first
+    public void apply(Collection<Delta> deltas) {
+        apply(deltas, mongoTemplate.getCollectionName(DailyRollup.class));
+    }
+
+    private void apply(Collection<Delta> deltas, String collection) {
+        Map<String, Delta> merged = new LinkedHashMap<>();
+        for (Delta delta : deltas) {
+            if (delta.kind() == null || delta.date() == null) {
+                continue;
+            }
+            merged.merge(delta.kind() + ":" + delta.date(), delta, (a, b) -> new Delta(
+                    a.kind(), a.date(), a.amount().plus(b.amount()), a.count() + b.count()));
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DailyRollup.class, collection);
+        for (Delta delta : merged.values()) {
+            if (delta.amount().paise() == 0 && delta.count() == 0) {
+                continue;
+            }
+            YearMonth month = YearMonth.from(delta.date());
+            ops.upsert(byId(delta.kind() + ":" + delta.date()), increment(delta, DAY, delta.date()));
+            ops.upsert(byId(delta.kind() + ":" + month), increment(delta, MONTH, month.atDay(1)));
+        }
+        ops.execute();
+    }
+
+    // start inclusive, end exclusive; both null means all time. Empty until the rollups are built.
+    public Optional<AmountTotalDto> total(String kind, LocalDate start, LocalDate end) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+
+        Criteria criteria;
+        if (start == null || end == null) {
+            criteria = Criteria.where("kind").is(kind).and("granularity").is(MONTH);
+        } else {
+            LocalDate fullFrom = start.getDayOfMonth() == 1 ? start : YearMonth.from(start).plusMonths(1).atDay(1);
+            LocalDate fullTo = YearMonth.from(end).atDay(1);
+            if (!fullFrom.isBefore(fullTo)) {
+                criteria = days(kind, start, end);
+            } else {
+                criteria = new Criteria().orOperator(
+                        days(kind, start, fullFrom),
+                        Criteria.where("kind").is(kind).and("granularity").is(MONTH).and("date").gte(fullFrom).lt(fullTo),
+                        days(kind, fullTo, end));
+            }
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group().sum("sum").as("sum").sum("count").as("count"));
+
+        AmountTotalDto total = mongoTemplate.aggregate(aggregation, DailyRollup.class, AmountTotalDto.class)
+                .getUniqueMappedResult();
+        return Optional.of(total != null ? total : new AmountTotalDto(Money.ZERO, 0));
+    }
+
+    /**
+     * Recomputes every rollup from the transactions and expenses, unless
+     * another node holds the rebuild lease (a findAndModify on a lock document
+     * in counters), in which case it returns false and does nothing.
+     *
+     * The rollups are built in a scratch collection, indexed, marked ready and
+     * then renamed over the live one in a single step, so readers on other
+     * nodes see the old rollups or the new ones, never a half-built set, and
+     * nothing is applied twice. $incs that other nodes already serving make
+     * between the aggregation reading a row and the rename are not carried
+     * over, so a forced rebuild belongs in a deploy where the nodes start
+     * together (DailyRollupRebuild runs before the web server starts).
+     */
+    public boolean tryRebuild() {
+        if (!acquireLease()) {
+            return false;
+        }
+        try {
+            rebuild();
+            return true;
+        } finally {
+            releaseLease();
+        }
+    }
+
+    // True while some node holds the rebuild lease (or died holding it and the lease has not run out yet)
+    public boolean rebuildInProgress() {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(LEASE_ID).and("expiresAt").gt(new Date())),
+                Counter.class);
+    }
+
+    private void rebuild() {
+        mongoTemplate.dropCollection(SCRATCH_COLLECTION); // left over from a rebuild that did not finish
+        IndexOperations scratchIndexes = mongoTemplate.indexOps(SCRATCH_COLLECTION);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(DailyRollup.class)
+                .forEach(scratchIndexes::createIndex);
+
+        List<Delta> deltas = new ArrayList<>();
+        Aggregation ledger = Aggregation.newAggregation(
+                Aggregation.group("type", "date").sum("amount").as("sum").count().as("count"));
+        for (Document row : mongoTemplate.aggregate(ledger, Transaction.class, Document.class)) {
+            Document key = row.get("_id", Document.class);
+            deltas.add(delta(kindOf(key.getString("type")), key.getDate("date"), row));
+        }
+
+        Aggregation expenses = Aggregation.newAggregation(
+                Aggregation.group("date").sum("amount").as("sum").count().as("count"));
+        for (Document row : mongoTemplate.aggregate(expenses, Expense.class, Document.class)) {
+            deltas.add(delta(EXPENSES, row.getDate("_id"), row));
+        }
+
+        apply(deltas, SCRATCH_COLLECTION);
+        mongoTemplate.upsert(byId(READY_MARKER), Update.update("kind", "meta"), DailyRollup.class, SCRATCH_COLLECTION);
+
+        MongoNamespace live = new MongoNamespace(mongoTemplate.getDb().getName(),
+                mongoTemplate.getCollectionName(DailyRollup.class));
+        mongoTemplate.getCollection(SCRATCH_COLLECTION)
+                .renameCollection(live, new RenameCollectionOptions().dropTarget(true));
+        ready = true;
+    }
+
+    // Inserting the lock document fails on the duplicate _id while another node's lease is still running
+    private boolean acquireLease() {
+        Date now = new Date();
+        Query free = Query.query(Criteria.where("_id").is(LEASE_ID).and("expiresAt").lt(now));
+        Update take = new Update()
+                .set("holder", LEASE_HOLDER)
+                .set("expiresAt", new Date(now.getTime() + rebuildLease.toMillis()));
+        try {
+            mongoTemplate.findAndModify(free, take, FindAndModifyOptions.options().upsert(true), Counter.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void releaseLease() {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(LEASE_ID).and("holder").is(LEASE_HOLDER)),
+                Counter.class);
+    }
+
+    public boolean isReady() {
+        if (!ready) {
+            ready = mongoTemplate.exists(byId(READY_MARKER), DailyRollup.class);
+        }
+        return ready;
+    }
+
+    private Criteria days(String kind, LocalDate from, LocalDate to) {
+        return Criteria.where("kind").is(kind).and("granularity").is(DAY).and("date").gte(from).lt(to);
+    }
+
+    private Delta delta(String kind, Date date, Document row) {
+        LocalDate day = date != null ? date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null;
+        return new Delta(kind, day, Money.ofPaise(((Number) row.get("sum")).longValue()),
+                ((Number) row.get("count")).intValue());
+    }
+
+    private Update increment(Delta delta, String granularity, LocalDate date) {
+        return new Update()
+                .setOnInsert("kind", delta.kind())
+                .setOnInsert("granularity", granularity)
+                .setOnInsert("date", date)
+                .inc("sum", delta.amount().paise())
+                .inc("count", delta.count());
+    }
+
+    private Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
@@ -0,0 +1,120 @@
+package com.cases.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.cases.dto.DashboardSummaryDto;
+import com.cases.model.Bill;
+import com.cases.model.Customer;
+import com.cases.model.Expense;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Everything the dashboard shows from one $facet pass over transactions, one
+ * $group over expenses, one over customer balances and a count of bills, run
+ * concurrently.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ParallelCalls parallelCalls;
+
+    // start inclusive, end exclusive; both null means all time
+    public DashboardSummaryDto getSummary(LocalDate start, LocalDate end) {
+        try (ParallelCalls.Scope scope = parallelCalls.open()) {
+            Supplier<Document> ledger = scope.fork(() -> ledgerTotals(start, end));
+            Supplier<Document> expenses = scope.fork(() -> expenseTotals(start, end));
+            Supplier<Money> balances = scope.fork(this::balanceTotal);
+            Supplier<Long> bills = scope.fork(() -> billCount(start, end));
+            scope.join();
+
+            return summary(ledger.get(), expenses.get(), balances.get(), bills.get());
+        }
+    }
+
+    private DashboardSummaryDto summary(Document ledgerTotals, Document expenseTotals, Money balanceTotal,
+            long billCount) {
+        Document sales = first(ledgerTotals, "sales");
+        Document payments = first(ledgerTotals, "payments");
+
+        return DashboardSummaryDto.builder()
+                .totalSales(money(sales))
+                .salesCount(number(sales, "count").longValue())
+                .totalPayment(money(payments))
+                .paymentCount(number(payments, "count").longValue())
+                .totalExpenses(money(expenseTotals))
+                .expenseCount(number(expenseTotals, "count").longValue())
+                .billCount(billCount)
+                .outstandingReceivables(balanceTotal.negate())
+                .build();
+    }
+
+    private Document ledgerTotals(LocalDate start, LocalDate end) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(dateRange(start, end)),
+                Aggregation.facet(
+                        Aggregation.match(Criteria.where("type").is("debit")),
+                        Aggregation.group().sum("amount").as("sum").count().as("count"))
+                        .as("sales")
+                        .and(
+                                Aggregation.match(Criteria.where("type").is("credit")),
+                                Aggregation.group().sum("amount").as("sum").count().as("count"))
+                        .as("payments"));
+
+        return mongoTemplate.aggregate(aggregation, Transaction.class, Document.class).getUniqueMappedResult();
+    }
+
+    private Document expenseTotals(LocalDate start, LocalDate end) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(dateRange(start, end)),
+                Aggregation.group().sum("amount").as("sum").count().as("count"));
+
+        return mongoTemplate.aggregate(aggregation, Expense.class, Document.class).getUniqueMappedResult();
+    }
+
+    // Bills themselves rather than their ledger debits, so a bill whose debit is missing still counts
+    private long billCount(LocalDate start, LocalDate end) {
+        if (start == null || end == null) {
+            return mongoTemplate.estimatedCount(Bill.class);
+        }
+        return mongoTemplate.count(new Query(dateRange(start, end)), Bill.class);
+    }
+
+    private Money balanceTotal() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group().sum("balance").as("sum"));
+
+        Document total = mongoTemplate.aggregate(aggregation, Customer.class, Document.class).getUniqueMappedResult();
+        return money(total);
+    }
+
+    private Criteria dateRange(LocalDate start, LocalDate end) {
+        return start != null && end != null ? Criteria.where("date").gte(start).lt(end) : new Criteria();
+    }
+
+    private Document first(Document facets, String name) {
+        List<Document> rows = facets != null ? facets.getList(name, Document.class) : null;
+        return rows == null || rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Money money(Document row) {
+        return Money.ofPaise(number(row, "sum").longValue());
+    }
+
+    private Number number(Document row, String field) {
+        return row != null && row.get(field) instanceof Number value ? value : 0;
+    }
+}
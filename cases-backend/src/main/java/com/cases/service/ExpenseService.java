@@ -1,18 +1,40 @@
 package com.cases.service;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.cases.config.CacheConfig;
+import com.cases.csv.CsvReader;
+import com.cases.dto.AmountTotalDto;
 import com.cases.dto.CreateExpenseCategoryDto;
 import com.cases.dto.CreateExpenseDto;
 import com.cases.dto.ExpenseCategoryWithExpensesDto;
+import com.cases.dto.ImportResultDto;
+import com.cases.mapper.ExpenseMapper;
 import com.cases.model.Expense;
 import com.cases.model.ExpenseCategory;
+import com.cases.model.Money;
 import com.cases.repository.ExpenseCategoryRepository;
 import com.cases.repository.ExpenseRepository;
 
@@ -24,7 +46,13 @@ public class ExpenseService {
 
     private final ExpenseCategoryRepository categoryRepo;
     private final ExpenseRepository expenseRepo;
+    private final TotalsService totalsService;
+    private final MongoTemplate mongoTemplate;
+    private final DailyRollupService dailyRollupService;
+    private final ExpenseMapper expenseMapper;
+    private final BulkImporter bulkImporter;
 
+    @CacheEvict(cacheNames = CacheConfig.EXPENSE_CATEGORIES, allEntries = true)
     public ExpenseCategory createCategory(CreateExpenseCategoryDto dto) {
         if (categoryRepo.findByName(dto.getName()).isPresent()) {
             throw new IllegalArgumentException("Category already exists");
@@ -47,9 +75,70 @@ public class ExpenseService {
                 .categoryId(dto.getCategoryId())
                 .build();
 
-        return expenseRepo.save(expense);
+        Expense saved = expenseRepo.save(expense);
+        dailyRollupService.add(DailyRollupService.EXPENSES, saved.getDate(), saved.getAmount());
+        return saved;
     }
 
+    /**
+     * Creates an expense for every row of a CSV with date, amount, description
+     * and a categoryId or category (name) column, as written by the expenses
+     * export. Categories are validated against one read of all of them rather
+     * than a lookup per row; a blank date means today, as in createExpense.
+     */
+    public ImportResultDto importExpenses(InputStream csvFile) {
+        CsvReader csv = new CsvReader(csvFile);
+        if (!csv.readHeader() || !csv.hasColumn("amount")
+                || !(csv.hasColumn("categoryId") || csv.hasColumn("category"))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The first line must be a header with amount and categoryId or category columns");
+        }
+
+        Map<String, String> categoryIds = new HashMap<>(); // id and name -> id
+        for (ExpenseCategory category : categoryRepo.findAll()) {
+            categoryIds.put(category.getId(), category.getId());
+            categoryIds.putIfAbsent(category.getName(), category.getId());
+        }
+
+        try (BulkImporter.Batches<Expense> batches = bulkImporter.open(Expense.class,
+                stored -> dailyRollupService.apply(stored.stream()
+                        .map(expense -> DailyRollupService.Delta.add(DailyRollupService.EXPENSES, expense.getDate(),
+                                expense.getAmount()))
+                        .toList()))) {
+            LocalDate today = LocalDate.now();
+            try {
+                for (List<String> row = csv.next(); row != null; row = csv.next()) {
+                    String category = csv.get(row, "categoryId");
+                    String categoryId = categoryIds.get(category != null ? category : csv.get(row, "category"));
+                    String amount = csv.get(row, "amount");
+                    String date = csv.get(row, "date");
+                    try {
+                        if (categoryId == null) {
+                            batches.reject(csv.line(), "Invalid category ID");
+                        } else if (amount == null || new BigDecimal(amount).signum() <= 0) {
+                            batches.reject(csv.line(), "Amount must be a positive number");
+                        } else {
+                            batches.add(csv.line(), Expense.builder()
+                                    .description(csv.get(row, "description"))
+                                    .amount(Money.ofRupees(new BigDecimal(amount)))
+                                    .date(date != null ? LocalDate.parse(date) : today)
+                                    .categoryId(categoryId)
+                                    .build());
+                        }
+                    } catch (NumberFormatException | ArithmeticException e) {
+                        batches.reject(csv.line(), "Amount must be a positive number");
+                    } catch (DateTimeParseException e) {
+                        batches.reject(csv.line(), "Date must be YYYY-MM-DD");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                batches.reject(csv.line(), e.getMessage()); // the rest of the file cannot be read
+            }
+            return batches.finish();
+        }
+    }
+
+    @Cacheable(CacheConfig.EXPENSE_CATEGORIES)
     public List<ExpenseCategory> getAllCategories() {
         return categoryRepo.findAll();
     }
@@ -58,51 +147,83 @@ public class ExpenseService {
         return expenseRepo.findByCategoryId(categoryId);
     }
 
-    public double getTotalBetweenDates(LocalDate start, LocalDate end) {
-        return expenseRepo.findByDateBetween(start, end)
-                .stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
+    public Money getTotalBetweenDates(LocalDate start, LocalDate end) {
+        return totalsService.getExpenseTotal(start, end).getSum();
     }
 
+    // One ranged read for all categories instead of one query per category
     public List<ExpenseCategoryWithExpensesDto> getCategoriesWithFilteredExpenses(String startDateStr,
-            String endDateStr) {
-        List<ExpenseCategory> categories = categoryRepo.findAll();
-        List<ExpenseCategoryWithExpensesDto> result = new ArrayList<>();
-
-        LocalDate startDate = null;
-        LocalDate endDate = null;
+            String endDateStr, boolean summaryOnly) {
+        Criteria criteria = new Criteria();
 
         if (startDateStr != null && endDateStr != null) {
-            startDate = LocalDate.parse(startDateStr);
-            endDate = LocalDate.parse(endDateStr).plusDays(1); // to make it inclusive
+            LocalDate startDate = LocalDate.parse(startDateStr);
+            LocalDate endDate = LocalDate.parse(endDateStr).plusDays(1); // to make it inclusive
+            criteria = Criteria.where("date").gte(startDate).lt(endDate);
         }
 
-        for (ExpenseCategory category : categories) {
-            List<Expense> expenses;
+        List<ExpenseCategory> categories = categoryRepo.findAll();
+        List<ExpenseCategoryWithExpensesDto> result = new ArrayList<>();
 
-            if (startDate != null && endDate != null) {
-                expenses = expenseRepo.findByCategoryIdAndDateBetween(category.getId(), startDate, endDate);
-            } else {
-                expenses = expenseRepo.findByCategoryId(category.getId());
+        if (summaryOnly) {
+            Map<String, AmountTotalDto> totals = totalsByCategory(criteria);
+            for (ExpenseCategory category : categories) {
+                AmountTotalDto total = totals.getOrDefault(category.getId(), new AmountTotalDto(Money.ZERO, 0));
+                result.add(expenseMapper.toDto(category, null, total));
             }
+            return result;
+        }
+
+        Map<String, List<Expense>> expensesByCategory = mongoTemplate.find(Query.query(criteria), Expense.class)
+                .stream()
+                .filter(expense -> expense.getCategoryId() != null)
+                .collect(Collectors.groupingBy(Expense::getCategoryId));
 
-            result.add(new ExpenseCategoryWithExpensesDto(
-                    category.getId(),
-                    category.getName(),
-                    expenses));
+        for (ExpenseCategory category : categories) {
+            List<Expense> expenses = expensesByCategory.getOrDefault(category.getId(), List.of());
+            Money sum = Money.ofPaise(expenses.stream().mapToLong(expense -> expense.getAmount().paise()).sum());
+            result.add(expenseMapper.toDto(category, expenses, new AmountTotalDto(sum, expenses.size())));
         }
 
         return result;
     }
 
-    public void deleteExpense(String id) {
-        if (!expenseRepo.existsById(id)) {
-            throw new IllegalArgumentException("Expense not found");
+    // Expenses in the range, oldest first, read through a cursor instead of grouped in memory;
+    // start and end are optional (end exclusive)
+    public void streamExpenses(LocalDate start, LocalDate end, Consumer<Expense> sink) {
+        Query query = new Query();
+        if (start != null && end != null) {
+            query.addCriteria(Criteria.where("date").gte(start).lt(end));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "date", "_id"));
+
+        try (Stream<Expense> expenses = mongoTemplate.stream(query, Expense.class)) {
+            expenses.forEach(sink);
         }
-        expenseRepo.deleteById(id);
     }
 
+    private Map<String, AmountTotalDto> totalsByCategory(Criteria criteria) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("categoryId").sum("amount").as("sum").count().as("count"));
+
+        Map<String, AmountTotalDto> totals = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Expense.class, Document.class)) {
+            totals.put(row.getString("_id"), new AmountTotalDto(
+                    Money.ofPaise(((Number) row.get("sum")).longValue()),
+                    ((Number) row.get("count")).longValue()));
+        }
+        return totals;
+    }
+
+    public void deleteExpense(String id) {
+        Expense expense = expenseRepo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        expenseRepo.delete(expense);
+        dailyRollupService.remove(DailyRollupService.EXPENSES, expense.getDate(), expense.getAmount());
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.EXPENSE_CATEGORIES, allEntries = true)
     public void deleteCategory(String id) {
         if (!categoryRepo.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found");
@@ -111,6 +232,10 @@ public class ExpenseService {
         // Delete all expenses under this category
         List<Expense> expenses = expenseRepo.findByCategoryId(id);
         expenseRepo.deleteAll(expenses);
+        dailyRollupService.apply(expenses.stream()
+                .map(expense -> DailyRollupService.Delta.remove(DailyRollupService.EXPENSES, expense.getDate(),
+                        expense.getAmount()))
+                .toList());
 
         categoryRepo.deleteById(id);
     }
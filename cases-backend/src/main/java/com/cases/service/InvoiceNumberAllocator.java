@@ -0,0 +1,104 @@
+package com.cases.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.cases.model.Bill;
+import com.cases.model.Counter;
+import com.cases.repository.BillRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hands out invoice numbers from the "invoiceNumber" counter document.
+ *
+ * Each node reserves a block of numbers with a single atomic $inc and serves
+ * them from memory, so concurrent bills never share a number and the write
+ * path no longer sorts the bills collection. With more than one node, numbers
+ * interleave between nodes and unused numbers of a block are skipped after a
+ * restart; set the block size to 1 if gapless numbering matters more.
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceNumberAllocator {
+
+    static final String COUNTER_ID = "invoiceNumber";
+    static final int FIRST_INVOICE_NUMBER = 1001;
+
+    private final MongoTemplate mongoTemplate;
+    private final BillRepository billRepository;
+
+    @Value("${cases.invoice-number.block-size:50}")
+    private int blockSize;
+
+    private volatile boolean counterReady;
+
+    // Current block is [next, last]; empty when next > last
+    private long next = 1;
+    private long last = 0;
+
+    public synchronized int next() {
+        if (next > last) {
+            last = reserve(blockSize);
+            next = last - blockSize + 1;
+        }
+        return (int) next++;
+    }
+
+    // Reserves count consecutive numbers straight from the counter and returns the first one
+    public int reserveBlock(int count) {
+        return (int) (reserve(count) - count + 1);
+    }
+
+    // Read-only: the number this node would hand out next
+    public int peek() {
+        synchronized (this) {
+            if (next <= last) {
+                return (int) next;
+            }
+        }
+        Counter counter = mongoTemplate.findById(COUNTER_ID, Counter.class);
+        if (counter != null) {
+            return (int) counter.getSeq() + 1;
+        }
+        return latestInvoiceNumber() + 1;
+    }
+
+    // Atomically moves the counter forward by count and returns the last reserved number
+    private long reserve(int count) {
+        ensureCounter();
+        Counter counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(COUNTER_ID)),
+                new Update().inc("seq", count),
+                FindAndModifyOptions.options().returnNew(true),
+                Counter.class);
+        return counter.getSeq();
+    }
+
+    // Seeds the counter from existing bills the first time it is used
+    private void ensureCounter() {
+        if (counterReady) {
+            return;
+        }
+        if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(COUNTER_ID)), Counter.class)) {
+            try {
+                mongoTemplate.insert(new Counter(COUNTER_ID, latestInvoiceNumber()));
+            } catch (DuplicateKeyException e) {
+                // another node seeded it first
+            }
+        }
+        counterReady = true;
+    }
+
+    private int latestInvoiceNumber() {
+        return billRepository.findTopByOrderByInvoiceNumberDesc()
+                .map(Bill::getInvoiceNumber)
+                .orElse(FIRST_INVOICE_NUMBER - 1);
+    }
+}
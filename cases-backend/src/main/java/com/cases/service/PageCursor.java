@@ -0,0 +1,71 @@
+package com.cases.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.cases.dto.PageDto;
+
+/**
+ * Opaque keyset cursors: the sort key of the last row on a page, joined with '|'
+ * (the document id always comes last) and base64url encoded.
+ */
+final class PageCursor {
+
+    static final int MAX_LIMIT = 500;
+
+    private PageCursor() {
+    }
+
+    static int clamp(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    static String encode(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            if (key.length() > 0) {
+                key.append('|');
+            }
+            key.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {key, id} for two-part cursors; the id never contains '|', the key may
+    static String[] decodePair(String cursor) {
+        String key = decode(cursor);
+        int split = key.lastIndexOf('|');
+        if (split < 0) {
+            throw invalid();
+        }
+        return new String[] { key.substring(0, split), key.substring(split + 1) };
+    }
+
+    static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    // rows were fetched with limit + 1 so an extra row means there is a next page
+    static <T, R> PageDto<R> page(List<T> rows, int limit, Function<T, String> cursorOf, Function<T, R> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<T> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String next = hasNext ? cursorOf.apply(pageRows.get(limit - 1)) : null;
+        return new PageDto<>(pageRows.stream().map(mapper).toList(), next);
+    }
+}
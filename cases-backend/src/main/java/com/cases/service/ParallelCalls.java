@@ -0,0 +1,107 @@
+package com.cases.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs independent repository calls side by side on virtual threads, so a
+ * handler waits for its slowest call instead of the sum of all of them.
+ *
+ * <pre>
+ * try (ParallelCalls.Scope scope = parallelCalls.open()) {
+ *     Supplier&lt;Customer&gt; customer = scope.fork(() -&gt; customerRepository.findById(id).orElseThrow());
+ *     Supplier&lt;List&lt;Bill&gt;&gt; bills = scope.fork(() -&gt; billRepository.findByDueDate(today));
+ *     scope.join();
+ *     ...
+ * }
+ * </pre>
+ *
+ * The first failure cancels (interrupts) the other calls and is rethrown from
+ * join(); exceeding cases.parallel-calls.timeout does the same with a 504.
+ * Leaving the block without joining cancels whatever is still running.
+ */
+@Component
+public class ParallelCalls implements DisposableBean {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${cases.parallel-calls.timeout:5s}")
+    private Duration timeout;
+
+    public Scope open() {
+        return new Scope(timeout);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final Duration timeout;
+        private final List<Future<?>> tasks = new ArrayList<>();
+        private final BlockingQueue<Future<?>> completed = new LinkedBlockingQueue<>();
+
+        private Scope(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public <T> Supplier<T> fork(Callable<T> call) {
+            FutureTask<T> task = new FutureTask<>(call) {
+                @Override
+                protected void done() {
+                    completed.add(this);
+                }
+            };
+            tasks.add(task);
+            executor.execute(task);
+            return task::resultNow;
+        }
+
+        // Waits for every forked call; results are then available from the suppliers
+        public void join() {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try {
+                for (int finished = 0; finished < tasks.size(); finished++) {
+                    Future<?> task = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (task == null) {
+                        throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                                "Database calls did not finish within " + timeout);
+                    }
+                    task.get(); // fails fast on the first error
+                }
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for database calls");
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+}
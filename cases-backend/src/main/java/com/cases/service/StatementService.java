@@ -1,20 +1,21 @@
 package com.cases.service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import com.cases.dto.StatementTransactionDTO;
-import com.cases.model.Bill;
+import com.cases.mapper.StatementMapper;
+import com.cases.model.Money;
 import com.cases.model.Transaction;
-import com.cases.repository.BillRepository;
-import com.cases.repository.TransactionRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,69 +23,51 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StatementService {
 
-    private final TransactionRepository transactionRepository;
-    private final BillRepository billRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final StatementMapper statementMapper;
 
     public List<StatementTransactionDTO> getCustomerStatement(String customerId, String startDateStr,
             String endDateStr) {
-        List<Transaction> transactions;
-
-        if (startDateStr != null && endDateStr != null) {
-            LocalDate startDate = LocalDate.parse(startDateStr);
-            LocalDate endDate = LocalDate.parse(endDateStr).plusDays(1);
-            transactions = transactionRepository.findByCustomer_IdAndDateBetweenOrderByDateAsc(customerId, startDate,
-                    endDate);
-        } else {
-            transactions = transactionRepository.findByCustomer_IdOrderByDateAsc(customerId);
-        }
-
-        BigDecimal balance = BigDecimal.ZERO;
-
-        // Get all related bill IDs
-        List<String> billIds = transactions.stream()
-                .filter(t -> t.getRelatedBill() != null)
-                .map(t -> t.getRelatedBill().getId())
-                .collect(Collectors.toList());
-
-        List<Bill> bills = billRepository.findAllById(billIds);
-        Map<String, Integer> billMap = new HashMap<>();
-        for (Bill bill : bills) {
-            billMap.put(bill.getId(), bill.getInvoiceNumber());
-        }
-
         List<StatementTransactionDTO> statement = new ArrayList<>();
+        streamCustomerStatement(customerId, startDateStr, endDateStr, statement::add);
+        return statement;
+    }
 
-        for (Transaction txn : transactions) {
-            boolean isDebit = txn.getType().equalsIgnoreCase("debit");
-            BigDecimal amount = BigDecimal.valueOf(txn.getAmount());
-
-            if (isDebit) {
-                balance = balance.subtract(amount);
-            } else {
-                balance = balance.add(amount);
+    // Reads the ledger through a cursor and hands each entry to the sink as soon as its balance is known
+    public void streamCustomerStatement(String customerId, String startDateStr, String endDateStr,
+            Consumer<StatementTransactionDTO> sink) {
+        boolean ranged = startDateStr != null && endDateStr != null;
+
+        // A ranged statement opens with the balance carried in from before the range. It runs on its
+        // own, outside any ParallelCalls timeout: the first roll-forward over a long history can be slow
+        Money opening = ranged
+                ? balanceCheckpointService.openingBalance(customerId, LocalDate.parse(startDateStr))
+                : Money.ZERO;
+
+        try (Stream<Transaction> transactions = mongoTemplate.stream(statementQuery(customerId, startDateStr,
+                endDateStr), Transaction.class)) {
+            // Running balance in paise: plain long arithmetic, no rounding between rows
+            long balance = opening.paise();
+            for (Transaction txn : (Iterable<Transaction>) transactions::iterator) {
+                long amount = txn.getAmount().paise();
+                balance += StatementTransactionDTO.isDebit(txn) ? -amount : amount;
+                sink.accept(statementMapper.toEntry(txn, Money.ofPaise(balance)));
             }
+        }
+    }
 
-            Integer invoiceNumber = txn.getInvoiceNumber();
-            String relatedBillId = txn.getRelatedBill() != null ? txn.getRelatedBill().getId() : null;
-
-            if (invoiceNumber == null && relatedBillId != null) {
-                invoiceNumber = billMap.getOrDefault(relatedBillId, null);
-            }
+    private Query statementQuery(String customerId, String startDateStr, String endDateStr) {
+        Query query = Query.query(Criteria.where("customerId").is(customerId));
 
-            statement.add(new StatementTransactionDTO(
-                    txn.getId(),
-                    txn.getDate(),
-                    isDebit ? "Invoice #" + (invoiceNumber != null ? invoiceNumber : "N/A") : "Payment Received",
-                    isDebit ? amount.intValue() : null,
-                    !isDebit ? amount.intValue() : null,
-                    balance.intValue(),
-                    invoiceNumber,
-                    relatedBillId,
-                    txn.getType(),
-                    amount,
-                    txn.getDescription()));
+        if (startDateStr != null && endDateStr != null) {
+            LocalDate startDate = LocalDate.parse(startDateStr);
+            LocalDate endDate = LocalDate.parse(endDateStr).plusDays(1);
+            query.addCriteria(Criteria.where("date").gte(startDate).lt(endDate));
         }
 
-        return statement;
+        query.with(Sort.by(Sort.Direction.ASC, "date", "_id"));
+        query.fields().exclude("customer", "relatedBill");
+        return query;
     }
 }
@@ -0,0 +1,64 @@
+package com.cases.service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.cases.dto.AmountTotalDto;
+import com.cases.model.Expense;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Range totals, read from the daily rollups when they are built. Otherwise the
+ * amounts are summed inside MongoDB with a $match/$group pipeline, so only a
+ * single {sum, count} document comes back instead of every matching row.
+ */
+@Service
+@RequiredArgsConstructor
+public class TotalsService {
+
+    private final MongoTemplate mongoTemplate;
+    private final DailyRollupService dailyRollupService;
+
+    // start inclusive, end exclusive; both null means all time
+    public AmountTotalDto getTransactionTotal(String type, LocalDate start, LocalDate end) {
+        String kind = DailyRollupService.kindOf(type);
+        if (kind != null) {
+            Optional<AmountTotalDto> rolledUp = dailyRollupService.total(kind, start, end);
+            if (rolledUp.isPresent()) {
+                return rolledUp.get();
+            }
+        }
+        Criteria criteria = withDateRange(Criteria.where("type").is(type), start, end);
+        return sum(criteria, Transaction.class);
+    }
+
+    public AmountTotalDto getExpenseTotal(LocalDate start, LocalDate end) {
+        return dailyRollupService.total(DailyRollupService.EXPENSES, start, end)
+                .orElseGet(() -> sum(withDateRange(new Criteria(), start, end), Expense.class));
+    }
+
+    private Criteria withDateRange(Criteria criteria, LocalDate start, LocalDate end) {
+        if (start != null && end != null) {
+            criteria = criteria.and("date").gte(start).lt(end);
+        }
+        return criteria;
+    }
+
+    private AmountTotalDto sum(Criteria criteria, Class<?> entityClass) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group().sum("amount").as("sum").count().as("count"));
+
+        AmountTotalDto total = mongoTemplate.aggregate(aggregation, entityClass, AmountTotalDto.class)
+                .getUniqueMappedResult();
+        return total != null ? total : new AmountTotalDto(Money.ZERO, 0);
+    }
+}
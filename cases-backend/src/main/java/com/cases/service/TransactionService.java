@@ -1,11 +1,21 @@
 package com.cases.service;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.cases.dto.PageDto;
 import com.cases.model.Transaction;
 import com.cases.repository.TransactionRepository;
 
@@ -16,16 +26,79 @@ import lombok.RequiredArgsConstructor;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final DailyRollupService dailyRollupService;
 
     public Transaction createTransaction(Transaction transaction) {
         if (transaction.getDate() == null) {
             transaction.setDate(LocalDate.now());
         }
-        return transactionRepository.save(transaction);
+        if (transaction.getCustomer() != null) {
+            transaction.setCustomerId(transaction.getCustomer().getId());
+            transaction.setCustomerName(transaction.getCustomer().getName());
+        }
+        if (transaction.getRelatedBill() != null) {
+            transaction.setRelatedBillId(transaction.getRelatedBill().getId());
+        }
+        Transaction saved = transactionRepository.save(transaction);
+        balanceCheckpointService.invalidateFrom(saved.getCustomerId(), saved.getDate());
+        dailyRollupService.add(DailyRollupService.kindOf(saved.getType()), saved.getDate(), saved.getAmount());
+        return saved;
     }
 
     public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+        return transactionRepository.findAllLean();
+    }
+
+    // Newest first on (date, _id); type, start and end are optional (end exclusive)
+    public PageDto<Transaction> getTransactionsPage(String type, LocalDate start, LocalDate end, int limit,
+            String cursor) {
+        int pageSize = PageCursor.clamp(limit);
+        List<Criteria> filters = new ArrayList<>();
+
+        if (type != null) {
+            filters.add(Criteria.where("type").is(type));
+        }
+        if (start != null && end != null) {
+            filters.add(Criteria.where("date").gte(start).lt(end));
+        }
+        if (cursor != null) {
+            String[] key = PageCursor.decodePair(cursor);
+            try {
+                LocalDate date = LocalDate.parse(key[0]);
+                ObjectId id = new ObjectId(key[1]);
+                filters.add(new Criteria().orOperator(
+                        Criteria.where("date").lt(date),
+                        Criteria.where("date").is(date).and("_id").lt(id)));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw PageCursor.invalid();
+            }
+        }
+
+        Query query = new Query();
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "date", "_id")).limit(pageSize + 1);
+        query.fields().exclude("customer", "relatedBill");
+
+        List<Transaction> transactions = mongoTemplate.find(query, Transaction.class);
+        return PageCursor.page(transactions, pageSize, t -> PageCursor.encode(t.getDate(), t.getId()), t -> t);
+    }
+
+    // Oldest first on (date, _id) through a cursor, for exports; start and end are optional (end exclusive)
+    public void streamTransactions(String type, LocalDate start, LocalDate end, Consumer<Transaction> sink) {
+        Query query = Query.query(Criteria.where("type").is(type));
+        if (start != null && end != null) {
+            query.addCriteria(Criteria.where("date").gte(start).lt(end));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "date", "_id"));
+        query.fields().exclude("customer", "relatedBill");
+
+        try (Stream<Transaction> transactions = mongoTemplate.stream(query, Transaction.class)) {
+            transactions.forEach(sink);
+        }
     }
 
     public Optional<Transaction> getTransactionById(String id) {
@@ -33,14 +106,19 @@ public class TransactionService {
     }
 
     public List<Transaction> getTransactionsForCustomer(String customerId) {
-        return transactionRepository.findByCustomer_IdOrderByDateAsc(customerId); // ✅ fixed
+        return transactionRepository.findByCustomerIdOrderByDateAsc(customerId);
     }
 
     public Optional<Transaction> getTransactionByRelatedBillId(String billId) {
-        return transactionRepository.findByRelatedBill_Id(billId); // ✅ fixed
+        return transactionRepository.findByRelatedBillId(billId);
     }
 
     public void deleteTransaction(String id) {
-        transactionRepository.deleteById(id);
+        transactionRepository.findById(id).ifPresent(transaction -> {
+            transactionRepository.delete(transaction);
+            balanceCheckpointService.invalidateFrom(transaction.getCustomerId(), transaction.getDate());
+            dailyRollupService.remove(DailyRollupService.kindOf(transaction.getType()), transaction.getDate(),
+                    transaction.getAmount());
+        });
     }
 }
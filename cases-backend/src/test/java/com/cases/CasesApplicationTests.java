@@ -3,7 +3,11 @@ package com.cases;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"cases.migrations.enabled=false",
+		"cases.migrations.versions.enabled=false",
+		"cases.indexes.create-on-startup=false",
+		"cases.rollups.rebuild-on-startup=false" })
 class CasesApplicationTests {
 
 	@Test
@@ -0,0 +1,66 @@
+package com.cases.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTests {
+
+	@Test
+	void readsBackWhatCsvWriterWrites() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CsvWriter csv = new CsvWriter(out)) {
+			csv.row("Name", "Phone", "Address");
+			csv.row("Shah, \"Bapu\" & Sons", "+91 98765 43210", "12 MG Road\nPune");
+			csv.row("Mehta Traders", null, null);
+		}
+
+		CsvReader csv = new CsvReader(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(csv.readHeader()).isTrue();
+
+		List<String> first = csv.next();
+		assertThat(csv.line()).isEqualTo(2);
+		assertThat(csv.get(first, "name")).isEqualTo("Shah, \"Bapu\" & Sons");
+		assertThat(csv.get(first, "ADDRESS")).isEqualTo("12 MG Road\nPune");
+
+		List<String> second = csv.next();
+		assertThat(csv.line()).isEqualTo(4);
+		assertThat(csv.get(second, "name")).isEqualTo("Mehta Traders");
+		assertThat(csv.get(second, "phone")).isNull();
+		assertThat(csv.next()).isNull();
+	}
+
+	@Test
+	void skipsBlankLinesAndMatchesLooseHeaders() {
+		CsvReader csv = reader("date,Category Id,amount\n\n2025-04-01,abc,10.50\r\n");
+		assertThat(csv.readHeader()).isTrue();
+		assertThat(csv.hasColumn("categoryId")).isTrue();
+
+		List<String> row = csv.next();
+		assertThat(csv.line()).isEqualTo(3);
+		assertThat(csv.get(row, "category_id")).isEqualTo("abc");
+		assertThat(csv.get(row, "description")).isNull();
+		assertThat(csv.next()).isNull();
+	}
+
+	@Test
+	void rejectsAQuoteThatIsNeverClosed() {
+		CsvReader csv = reader("name\nok\n\"broken,\nrest of file\n");
+		csv.readHeader();
+		csv.next();
+
+		assertThatThrownBy(csv::next)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("line 3");
+	}
+
+	private static CsvReader reader(String text) {
+		return new CsvReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,58 @@
+package com.cases.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.cases.model.Money;
+
+class CsvWriterTests {
+
+	@Test
+	void quotesOnlyCellsThatNeedIt() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CsvWriter csv = new CsvWriter(out)) {
+			csv.row("Date", "Customer", "Amount");
+			csv.row(LocalDate.of(2025, 4, 1), "Shah, \"Bapu\" & Sons", Money.ofPaise(123450));
+			csv.row(null, "line\nbreak", null);
+		}
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\uFEFF"
+				+ "Date,Customer,Amount\r\n"
+				+ "2025-04-01,\"Shah, \"\"Bapu\"\" & Sons\",1234.50\r\n"
+				+ ",\"line\nbreak\",\r\n");
+	}
+
+	@Test
+	void neutralisesFormulasInTextButNotInAmounts() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CsvWriter csv = new CsvWriter(out)) {
+			csv.row("=HYPERLINK(\"http://x\")", "+91 98765", "@SUM(A1)", Money.ofPaise(-5000), -3);
+		}
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\uFEFF"
+				+ "\"'=HYPERLINK(\"\"http://x\"\")\",'+91 98765,'@SUM(A1),-50.00,-3\r\n");
+
+		CsvReader csv = new CsvReader(new ByteArrayInputStream(
+				("name,phone\n" + "'=cmd,'+91 98765\n").getBytes(StandardCharsets.UTF_8)));
+		csv.readHeader();
+		List<String> row = csv.next();
+		assertThat(csv.get(row, "name")).isEqualTo("=cmd");
+		assertThat(csv.get(row, "phone")).isEqualTo("+91 98765");
+	}
+
+	@Test
+	void gzipOnlyWhenTheClientAcceptsIt() {
+		assertThat(CsvDownload.acceptsGzip("gzip, deflate, br")).isTrue();
+		assertThat(CsvDownload.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+		assertThat(CsvDownload.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(CsvDownload.acceptsGzip("identity")).isFalse();
+		assertThat(CsvDownload.acceptsGzip(null)).isFalse();
+	}
+}
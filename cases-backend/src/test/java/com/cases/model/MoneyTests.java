@@ -0,0 +1,45 @@
+package com.cases.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MoneyTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void roundsRupeesHalfUpToPaise() {
+		assertThat(Money.ofRupees(new BigDecimal("10.005")).paise()).isEqualTo(1001);
+		assertThat(Money.ofRupees(0.1 + 0.2).paise()).isEqualTo(30);
+		assertThat(Money.ofRupees(-12.345).paise()).isEqualTo(-1234);
+	}
+
+	@Test
+	void arithmeticIsExactInPaise() {
+		Money balance = Money.ZERO;
+		for (int i = 0; i < 1000; i++) {
+			balance = balance.plus(Money.ofRupees(0.1));
+		}
+		assertThat(balance).isEqualTo(Money.ofPaise(10000));
+		assertThat(balance.minus(Money.ofPaise(10000))).isEqualTo(Money.ZERO);
+	}
+
+	@Test
+	void writesAndReadsJsonAsRupees() throws Exception {
+		assertThat(objectMapper.writeValueAsString(Money.ofPaise(123450))).isEqualTo("1234.50");
+		assertThat(objectMapper.readValue("1234.5", Money.class)).isEqualTo(Money.ofPaise(123450));
+		assertThat(objectMapper.readValue("\"99.99\"", Money.class)).isEqualTo(Money.ofPaise(9999));
+		assertThat(objectMapper.readValue("500", Money.class)).isEqualTo(Money.ofPaise(50000));
+	}
+
+	@Test
+	void readsLegacyRupeeDoublesAndPaiseLongs() {
+		assertThat(new Money.FromLegacyRupees().convert(1234.56)).isEqualTo(Money.ofPaise(123456));
+		assertThat(new Money.FromPaise().convert(123456L)).isEqualTo(Money.ofPaise(123456));
+	}
+}
@@ -0,0 +1,248 @@
+package com.cases.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.cases.dto.BillFilterDto;
+import com.cases.model.Money;
+import com.cases.service.BillService;
+import com.cases.service.ExpenseService;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Runs every query method declared on the repositories against a scratch database,
+ * captures the command the driver sends, and fails if explain() says it would scan
+ * the whole collection. Needs a reachable MongoDB at MONGODB_URI; skipped otherwise.
+ */
+@EnabledIf("mongoReachable")
+@SpringBootTest(properties = {
+        "spring.data.mongodb.database=cases_query_plans",
+        "cases.migrations.enabled=false",
+        "cases.indexes.create-on-startup=true",
+        "cases.indexes.fail-on-missing=true" })
+class QueryPlanTests {
+
+    // Queries that read a whole collection on purpose
+    private static final Set<String> FULL_SCANS = Set.of("findAllLean");
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+    private static final Set<String> DRIVER_FIELDS = Set.of("$db", "lsid", "$clusterTime", "txnNumber",
+            "$readPreference", "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    private static final List<BsonDocument> commands = new ArrayList<>();
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @TestConfiguration
+    static class CommandCapture {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer captureCommands() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (EXPLAINABLE.contains(event.getCommandName())) {
+                        synchronized (commands) {
+                            commands.add(event.getCommand().clone());
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    static boolean mongoReachable() {
+        String uri = System.getenv("MONGODB_URI");
+        if (uri == null) {
+            return false;
+        }
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+                .build();
+        try (MongoClient client = MongoClients.create(settings)) {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @AfterAll
+    static void dropScratchDatabase(@Autowired MongoTemplate mongoTemplate) {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void repositoryQueriesUseAnIndex() throws Exception {
+        List<String> collectionScans = new ArrayList<>();
+
+        for (MongoRepository<?, ?> repository : context.getBeansOfType(MongoRepository.class).values()) {
+            for (Class<?> repositoryInterface : repository.getClass().getInterfaces()) {
+                if (!repositoryInterface.getPackageName().equals(getClass().getPackageName())) {
+                    continue;
+                }
+                for (Method method : repositoryInterface.getDeclaredMethods()) {
+                    if (Modifier.isStatic(method.getModifiers()) || method.isDefault()
+                            || FULL_SCANS.contains(method.getName())) {
+                        continue;
+                    }
+                    String query = repositoryInterface.getSimpleName() + "." + method.getName();
+                    BsonDocument command = capture(repository, method);
+                    if (command == null) {
+                        fail(query + " did not send a query");
+                    }
+                    if (usesCollectionScan(command)) {
+                        collectionScans.add(query + " " + command.toJson());
+                    }
+                }
+            }
+        }
+
+        assertTrue(collectionScans.isEmpty(), "Queries falling back to COLLSCAN: " + collectionScans);
+    }
+
+    @Test
+    void billFiltersUseAnIndex() {
+        String customerId = "000000000000000000000000";
+        List<BillFilterDto> filters = List.of(
+                BillFilterDto.builder().customerId(customerId).build(),
+                BillFilterDto.builder().customerId(customerId).invoiceFrom(1001).invoiceTo(2000).build(),
+                BillFilterDto.builder().customerId(customerId).sort("-date").build(),
+                BillFilterDto.builder().minTotal(Money.ofPaise(100_000)).sort("total").build(),
+                BillFilterDto.builder().invoiceFrom(1001).invoiceTo(2000).build());
+        List<String> collectionScans = new ArrayList<>();
+
+        for (BillFilterDto filter : filters) {
+            synchronized (commands) {
+                commands.clear();
+            }
+            billService.findBills(filter, 10);
+            BsonDocument command;
+            synchronized (commands) {
+                command = commands.get(0);
+            }
+            if (usesCollectionScan(command)) {
+                collectionScans.add(filter + " " + command.toJson());
+            }
+        }
+
+        assertTrue(collectionScans.isEmpty(), "Bill filters falling back to COLLSCAN: " + collectionScans);
+    }
+
+    // The export streams as it reads, so it must neither scan the collection nor sort in memory first
+    @Test
+    void expenseExportReadsInIndexOrder() {
+        List<String> badPlans = new ArrayList<>();
+
+        for (LocalDate start : new LocalDate[] { LocalDate.now().minusDays(30), null }) {
+            synchronized (commands) {
+                commands.clear();
+            }
+            expenseService.streamExpenses(start, start != null ? LocalDate.now() : null, expense -> {
+            });
+            BsonDocument command;
+            synchronized (commands) {
+                command = commands.get(0);
+            }
+            Object plan = winningPlan(command);
+            if (containsStage(plan, "COLLSCAN") || containsStage(plan, "SORT")) {
+                badPlans.add(command.toJson());
+            }
+        }
+
+        assertTrue(badPlans.isEmpty(), "Expense exports scanning or sorting in memory: " + badPlans);
+    }
+
+    private BsonDocument capture(Object repository, Method method) throws Exception {
+        synchronized (commands) {
+            commands.clear();
+        }
+        method.invoke(repository, sampleArguments(method));
+        synchronized (commands) {
+            return commands.isEmpty() ? null : commands.get(0);
+        }
+    }
+
+    private Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == String.class) {
+                args[i] = "000000000000000000000000";
+            } else if (types[i] == LocalDate.class) {
+                args[i] = LocalDate.now();
+            } else if (types[i] == int.class || types[i] == Integer.class) {
+                args[i] = 1;
+            } else {
+                throw new IllegalArgumentException("No sample value for " + types[i] + " in " + method);
+            }
+        }
+        return args;
+    }
+
+    private boolean usesCollectionScan(BsonDocument command) {
+        return containsStage(winningPlan(command), "COLLSCAN");
+    }
+
+    private Object winningPlan(BsonDocument command) {
+        Document query = Document.parse(command.toJson());
+        DRIVER_FIELDS.forEach(query::remove);
+
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", query).append("verbosity", "queryPlanner"));
+        return explain.get("queryPlanner") != null
+                ? ((Document) explain.get("queryPlanner")).get("winningPlan")
+                : explain; // aggregations nest the planner output per stage
+    }
+
+    private boolean containsStage(Object node, String stage) {
+        if (node instanceof Document doc) {
+            if (stage.equals(doc.get("stage"))) {
+                return true;
+            }
+            return doc.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package com.cases.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.cases.dto.AgingReportDto;
+import com.cases.dto.AgingRowDto;
+import com.cases.model.Bill;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+/**
+ * Runs the aging pipeline against a scratch database. Needs a reachable
+ * MongoDB at MONGODB_URI; skipped otherwise, like QueryPlanTests.
+ *
+ * Customer A owes bills due 91, 90, 61, 60, 31 and 30 days before asOf plus
+ * one not yet due, and has paid 1200.00: that clears the 91-day bill and 200.00
+ * of the 90-day one, oldest first. Customer B owes a manual debit from 100 days
+ * ago and a bill not yet due, and has paid nothing.
+ */
+@EnabledIf("com.cases.repository.QueryPlanTests#mongoReachable")
+@SpringBootTest(properties = {
+		"spring.data.mongodb.database=cases_aging_report",
+		"cases.migrations.enabled=false",
+		"cases.indexes.create-on-startup=false",
+		"cases.rollups.rebuild-on-startup=false" })
+class AgingReportQueryTests {
+
+	private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+	private static final String A = "aaaaaaaaaaaaaaaaaaaaaaaa";
+	private static final String B = "bbbbbbbbbbbbbbbbbbbbbbbb";
+
+	@Autowired
+	private AgingReportService agingReportService;
+
+	@BeforeAll
+	static void insertFixture(@Autowired MongoTemplate mongoTemplate) {
+		mongoTemplate.getDb().drop();
+
+		Bill oldest = bill(A, 91, "1000.00");
+		mongoTemplate.insert(oldest);
+		mongoTemplate.insert(bill(A, 90, "500.00"));
+		mongoTemplate.insert(bill(A, 61, "300.00"));
+		mongoTemplate.insert(bill(A, 60, "200.00"));
+		mongoTemplate.insert(bill(A, 31, "100.00"));
+		mongoTemplate.insert(bill(A, 30, "50.00"));
+		mongoTemplate.insert(bill(A, -10, "70.00")); // not yet due
+		// A bill's own ledger row must not count a second time
+		mongoTemplate.insert(transaction(A, "debit", 91, "1000.00", oldest.getId()));
+		mongoTemplate.insert(transaction(A, "credit", 5, "1200.00", null));
+
+		mongoTemplate.insert(transaction(B, "debit", 100, "400.00", null)); // manual debit, no bill
+		mongoTemplate.insert(bill(B, -5, "100.00"));
+	}
+
+	@AfterAll
+	static void dropScratchDatabase(@Autowired MongoTemplate mongoTemplate) {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void agesWhatIsStillOpenAfterPaymentsOldestFirst() {
+		AgingReportDto report = agingReportService.getAgingReport(AS_OF);
+
+		assertThat(report.getCustomers()).extracting(AgingRowDto::getCustomerId).containsExactly(A, B);
+		assertRow(report.getCustomers().get(0), "120.00", "300.00", "600.00", "0.00", "1020.00");
+		assertRow(report.getCustomers().get(1), "100.00", "0.00", "0.00", "400.00", "500.00");
+		assertRow(report.getTotals(), "220.00", "300.00", "600.00", "400.00", "1520.00");
+	}
+
+	private static void assertRow(AgingRowDto row, String days0to30, String days31to60, String days61to90,
+			String over90, String total) {
+		assertThat(row.getDays0to30()).isEqualTo(rupees(days0to30));
+		assertThat(row.getDays31to60()).isEqualTo(rupees(days31to60));
+		assertThat(row.getDays61to90()).isEqualTo(rupees(days61to90));
+		assertThat(row.getOver90()).isEqualTo(rupees(over90));
+		assertThat(row.getTotal()).isEqualTo(rupees(total));
+	}
+
+	private static Bill bill(String customerId, int daysOverdue, String grandTotal) {
+		Bill bill = new Bill();
+		bill.setCustomerId(customerId);
+		bill.setCustomerName("Customer " + customerId.charAt(0));
+		bill.setDate(AS_OF.minusDays(daysOverdue + 15L));
+		bill.setDueDate(AS_OF.minusDays(daysOverdue));
+		bill.setGrandTotal(rupees(grandTotal));
+		return bill;
+	}
+
+	private static Transaction transaction(String customerId, String type, int daysAgo, String amount,
+			String relatedBillId) {
+		return Transaction.builder()
+				.customerId(customerId)
+				.customerName("Customer " + customerId.charAt(0))
+				.type(type)
+				.amount(rupees(amount))
+				.date(AS_OF.minusDays(daysAgo))
+				.relatedBillId(relatedBillId)
+				.build();
+	}
+
+	private static Money rupees(String amount) {
+		return Money.ofRupees(new BigDecimal(amount));
+	}
+}
@@ -0,0 +1,47 @@
+package com.cases.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.cases.dto.AgingRowDto;
+import com.cases.model.Money;
+
+class AgingReportServiceTests {
+
+	@Test
+	void totalsMapBucketIdsToAgeColumns() {
+		AgingRowDto totals = AgingReportService.totals(List.of(
+				bucket(Integer.MIN_VALUE, 12_000),
+				bucket(31, 30_000),
+				bucket(61, 60_000L),
+				bucket("over90", 40_000)));
+
+		assertThat(totals.getCustomerId()).isNull();
+		assertThat(totals.getDays0to30()).isEqualTo(Money.ofPaise(12_000));
+		assertThat(totals.getDays31to60()).isEqualTo(Money.ofPaise(30_000));
+		assertThat(totals.getDays61to90()).isEqualTo(Money.ofPaise(60_000));
+		assertThat(totals.getOver90()).isEqualTo(Money.ofPaise(40_000));
+		assertThat(totals.getTotal()).isEqualTo(Money.ofPaise(142_000));
+	}
+
+	@Test
+	void totalsLeaveMissingBucketsAtZero() {
+		AgingRowDto totals = AgingReportService.totals(List.of(bucket(61, 500)));
+
+		assertThat(totals.getDays0to30()).isEqualTo(Money.ZERO);
+		assertThat(totals.getDays31to60()).isEqualTo(Money.ZERO);
+		assertThat(totals.getDays61to90()).isEqualTo(Money.ofPaise(500));
+		assertThat(totals.getOver90()).isEqualTo(Money.ZERO);
+		assertThat(totals.getTotal()).isEqualTo(Money.ofPaise(500));
+
+		assertThat(AgingReportService.totals(List.of()).getTotal()).isEqualTo(Money.ZERO);
+	}
+
+	private static Document bucket(Object id, Number sum) {
+		return new Document("_id", id).append("sum", sum);
+	}
+}
@@ -0,0 +1,108 @@
+package com.cases.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.cases.dto.CustomerSearchHitDto;
+import com.cases.model.Customer;
+
+class CustomerSearchIndexTests {
+
+	@Test
+	void normalizesCaseAccentsAndPunctuation() {
+		assertThat(CustomerSearchIndex.normalize("  Café  Sharma & Sons. ")).isEqualTo("cafe sharma sons");
+		assertThat(CustomerSearchIndex.normalize(null)).isEmpty();
+	}
+
+	@Test
+	void filesCustomersUnderNameWordsAndPhoneDigits() {
+		assertThat(CustomerSearchIndex.keysOf("Ram Traders", "+91 98765-43210"))
+				.containsExactly("ram traders", "ram", "traders", "919876543210");
+		assertThat(CustomerSearchIndex.keysOf("Ram", null)).containsExactly("ram");
+	}
+
+	@Test
+	void prefixDistanceIgnoresTheRestOfTheKey() {
+		assertThat(CustomerSearchIndex.prefixDistance("shar", "sharma traders", 1)).isZero();
+		assertThat(CustomerSearchIndex.prefixDistance("shra", "sharma", 1)).isEqualTo(1);
+		assertThat(CustomerSearchIndex.prefixDistance("gupta", "sharma", 1)).isGreaterThan(1);
+	}
+
+	@Test
+	void searchMatchesTheStartOfTheNameAWordOrThePhone() {
+		CustomerSearchIndex index = built(
+				customer("1", "Sharma Traders", "98765 43210"),
+				customer("2", "Gupta Sons", null),
+				customer("3", "Tradewell", null));
+
+		assertThat(ids(index, "sharma t")).containsExactly("1");
+		assertThat(ids(index, "trad")).containsExactlyInAnyOrder("1", "3");
+		assertThat(ids(index, "98765")).containsExactly("1");
+		assertThat(ids(index, "sons")).containsExactly("2");
+		assertThat(ids(index, "  ")).isEmpty();
+	}
+
+	@Test
+	void searchReturnsEachCustomerOnceAndStopsAtTheLimit() {
+		CustomerSearchIndex index = built(
+				customer("1", "Ram Ram Traders", null),
+				customer("2", "Ram Stores", null),
+				customer("3", "Ramesh", null));
+
+		// "ram ram traders", "ram" and "ram stores" all fall in the range of "ram"
+		assertThat(ids(index, "ram")).containsExactlyInAnyOrder("1", "2", "3");
+		assertThat(ids(index, "ram", 2)).hasSize(2).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void putAfterARenameDropsTheOldKeys() {
+		CustomerSearchIndex index = built(customer("1", "Sharma Traders", "98765"));
+
+		index.put(customer("1", "Gupta Traders", "11111"));
+
+		assertThat(ids(index, "sharma")).isEmpty();
+		assertThat(ids(index, "98765")).isEmpty();
+		assertThat(ids(index, "gupta")).containsExactly("1");
+		assertThat(ids(index, "traders")).containsExactly("1");
+	}
+
+	@Test
+	void writesMadeWhileARebuildReadsAreKept() {
+		CustomerSearchIndex index = built(customer("1", "Sharma", null), customer("2", "Gupta", null));
+
+		// Customer 1 is deleted and customer 3 created after the rebuild has read customer 1
+		index.rebuild(() -> Stream.of(customer("1", "Sharma", null), customer("2", "Gupta", null))
+				.peek(customer -> {
+					if (customer.getId().equals("2")) {
+						index.remove("1");
+						index.put(customer("3", "Verma", null));
+					}
+				}));
+
+		assertThat(ids(index, "sharma")).isEmpty();
+		assertThat(ids(index, "verma")).containsExactly("3");
+		assertThat(ids(index, "gupta")).containsExactly("2");
+	}
+
+	private static CustomerSearchIndex built(Customer... customers) {
+		CustomerSearchIndex index = new CustomerSearchIndex(null);
+		index.rebuild(() -> Stream.of(customers));
+		return index;
+	}
+
+	private static List<String> ids(CustomerSearchIndex index, String query) {
+		return ids(index, query, 10);
+	}
+
+	private static List<String> ids(CustomerSearchIndex index, String query, int limit) {
+		return index.search(query, limit).orElseThrow().stream().map(CustomerSearchHitDto::getId).toList();
+	}
+
+	private static Customer customer(String id, String name, String phone) {
+		return Customer.builder().id(id).name(name).phone(phone).build();
+	}
+}
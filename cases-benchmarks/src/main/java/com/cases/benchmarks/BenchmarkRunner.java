@@ -0,0 +1,29 @@
+package com.cases.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of target/benchmarks.jar. Accepts the usual JMH command line and
+ * always adds the GC profiler, so every run reports gc.alloc.rate.norm (bytes
+ * allocated per operation) next to the timings.
+ *
+ * <pre>
+ * mvn -pl cases-benchmarks -am package -DskipTests
+ * java -jar cases-benchmarks/target/benchmarks.jar                      # everything
+ * java -jar cases-benchmarks/target/benchmarks.jar Statement -p rows=1000 -rf json
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> withGc = new ArrayList<>(List.of("-prof", "gc"));
+        withGc.addAll(List.of(args));
+        Main.main(withGc.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,98 @@
+package com.cases.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+
+import com.cases.dto.CustomerResponseDto;
+import com.cases.mapper.BillMapper;
+import com.cases.mapper.BillMapperImpl;
+import com.cases.mapper.CustomerMapper;
+import com.cases.mapper.CustomerMapperImpl;
+import com.cases.model.Bill;
+import com.cases.model.Customer;
+
+/**
+ * Entity-to-DTO conversions used by every list endpoint. The generated
+ * customer mapper is measured against the reflective BeanUtils.copyProperties
+ * it replaced and against a hand-written copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms4g", "-Xmx4g" })
+public class DtoConversionBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private List<Bill> bills;
+    private List<Customer> customers;
+
+    private final BillMapper billMapper = new BillMapperImpl();
+    private final CustomerMapper customerMapper = new CustomerMapperImpl();
+
+    @Setup
+    public void setUp() {
+        bills = SyntheticData.bills(rows);
+        customers = SyntheticData.customers(rows);
+    }
+
+    @Benchmark
+    public void billMapper(Blackhole sink) {
+        for (Bill bill : bills) {
+            sink.consume(billMapper.toDto(bill));
+        }
+    }
+
+    @Benchmark
+    public void customerBeanUtilsCopy(Blackhole sink) {
+        for (Customer customer : customers) {
+            CustomerResponseDto dto = new CustomerResponseDto();
+            BeanUtils.copyProperties(customer, dto);
+            sink.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public void customerMapper(Blackhole sink) {
+        for (Customer customer : customers) {
+            sink.consume(customerMapper.toResponseDto(customer));
+        }
+    }
+
+    @Benchmark
+    public void customerMapperList(Blackhole sink) {
+        sink.consume(customerMapper.toResponseDtos(customers));
+    }
+
+    @Benchmark
+    public void customerManualCopy(Blackhole sink) {
+        for (Customer customer : customers) {
+            CustomerResponseDto dto = new CustomerResponseDto();
+            dto.setId(customer.getId());
+            dto.setName(customer.getName());
+            dto.setPhone(customer.getPhone());
+            dto.setAddress(customer.getAddress());
+            dto.setBalance(customer.getBalance());
+            dto.setCreatedAt(customer.getCreatedAt());
+            dto.setUpdatedAt(customer.getUpdatedAt());
+            sink.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.cases.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.cases.dto.StatementTransactionDTO;
+import com.cases.mapper.StatementMapper;
+import com.cases.mapper.StatementMapperImpl;
+import com.cases.model.Bill;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Response serialization with the same Jackson settings Spring Boot applies
+ * (ISO dates). Output goes to a discarding stream so only encoding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms4g", "-Xmx4g" })
+public class JsonSerializationBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private final StatementMapper statementMapper = new StatementMapperImpl();
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+    private final OutputStream discard = OutputStream.nullOutputStream();
+
+    private List<Bill> bills;
+    private List<StatementTransactionDTO> statement;
+
+    @Setup
+    public void setUp() {
+        bills = SyntheticData.bills(rows);
+        statement = new ArrayList<>(rows);
+        long balance = 0;
+        for (Transaction txn : SyntheticData.ledger(rows)) {
+            balance += StatementTransactionDTO.isDebit(txn) ? -txn.getAmount().paise() : txn.getAmount().paise();
+            statement.add(statementMapper.toEntry(txn, Money.ofPaise(balance)));
+        }
+    }
+
+    @Benchmark
+    public void serializeBills() throws IOException {
+        objectMapper.writeValue(discard, bills);
+    }
+
+    @Benchmark
+    public void serializeStatement() throws IOException {
+        objectMapper.writeValue(discard, statement);
+    }
+}
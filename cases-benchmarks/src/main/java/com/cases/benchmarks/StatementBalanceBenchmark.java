@@ -0,0 +1,80 @@
+package com.cases.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.cases.dto.StatementTransactionDTO;
+import com.cases.mapper.StatementMapper;
+import com.cases.mapper.StatementMapperImpl;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+/**
+ * The running-balance loop of StatementService.streamCustomerStatement: long
+ * paise as it is now, against the BigDecimal arithmetic it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms4g", "-Xmx4g" })
+public class StatementBalanceBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int rows;
+
+    private final StatementMapper statementMapper = new StatementMapperImpl();
+
+    private List<Transaction> ledger;
+
+    @Setup
+    public void setUp() {
+        ledger = SyntheticData.ledger(rows);
+    }
+
+    @Benchmark
+    public BigDecimal balanceBigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (Transaction txn : ledger) {
+            BigDecimal amount = txn.getAmount().rupees();
+            balance = StatementTransactionDTO.isDebit(txn) ? balance.subtract(amount) : balance.add(amount);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public long balanceLongPaise() {
+        long balance = 0;
+        for (Transaction txn : ledger) {
+            long amount = txn.getAmount().paise();
+            balance += StatementTransactionDTO.isDebit(txn) ? -amount : amount;
+        }
+        return balance;
+    }
+
+    // The full per-row work: balance plus the statement line handed to the sink
+    @Benchmark
+    public void statementLines(Blackhole sink) {
+        long balance = 0;
+        for (Transaction txn : ledger) {
+            long amount = txn.getAmount().paise();
+            balance += StatementTransactionDTO.isDebit(txn) ? -amount : amount;
+            sink.consume(statementMapper.toEntry(txn, Money.ofPaise(balance)));
+        }
+    }
+}
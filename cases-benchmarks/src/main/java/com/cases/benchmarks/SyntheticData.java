@@ -0,0 +1,108 @@
+package com.cases.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.cases.model.Bill;
+import com.cases.model.BillItem;
+import com.cases.model.Customer;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+
+/**
+ * Deterministic rows shaped like production data: amounts with paise, 1-5
+ * items per bill, roughly two bills for every payment. The same seed gives
+ * the same dataset on every run, so before/after numbers are comparable.
+ */
+public final class SyntheticData {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 4, 1);
+    private static final int CUSTOMERS = 1_000;
+
+    private SyntheticData() {
+    }
+
+    public static List<Customer> customers(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate created = FIRST_DAY.plusDays(random.nextInt(1_000));
+            customers.add(Customer.builder()
+                    .id(objectId(i))
+                    .name("Customer " + i)
+                    .phone("98" + (10_000_000 + random.nextInt(89_999_999)))
+                    .address(random.nextInt(500) + " Market Road, Ward " + random.nextInt(40))
+                    .balance(Money.ofPaise(-paise(random, 5_000_000)))
+                    .createdAt(created)
+                    .updatedAt(created.plusDays(random.nextInt(200)))
+                    .build());
+        }
+        return customers;
+    }
+
+    public static List<Bill> bills(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Bill> bills = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int customer = random.nextInt(CUSTOMERS);
+            List<BillItem> items = new ArrayList<>();
+            int totalQty = 0;
+            Money grandTotal = Money.ZERO;
+            for (int n = 1 + random.nextInt(5); n > 0; n--) {
+                BillItem item = new BillItem();
+                item.setModelNumber("MDL-" + random.nextInt(10_000));
+                item.setQuantity(1 + random.nextInt(50));
+                item.setRate(Money.ofPaise(paise(random, 500_000)));
+                item.setDiscount(random.nextInt(4) == 0 ? (double) random.nextInt(15) : null);
+                item.setTotalAmount(Money.ofPaise(item.getQuantity() * item.getRate().paise()));
+                items.add(item);
+                totalQty += item.getQuantity();
+                grandTotal = grandTotal.plus(item.getTotalAmount());
+            }
+
+            Bill bill = new Bill();
+            bill.setId(objectId(i));
+            bill.setInvoiceNumber(1001 + i);
+            bill.setCustomerId(objectId(customer));
+            bill.setCustomerName("Customer " + customer);
+            bill.setDate(FIRST_DAY.plusDays(i / 50));
+            bill.setDueDate(bill.getDate().plusDays(30));
+            bill.setItems(items);
+            bill.setTotalQty(totalQty);
+            bill.setGrandTotal(grandTotal);
+            bills.add(bill);
+        }
+        return bills;
+    }
+
+    // One customer's ledger in statement order
+    public static List<Transaction> ledger(int count) {
+        SplittableRandom random = new SplittableRandom(11);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean debit = random.nextInt(3) != 0;
+            transactions.add(Transaction.builder()
+                    .id(objectId(i))
+                    .customerId(objectId(0))
+                    .customerName("Customer 0")
+                    .type(debit ? "debit" : "credit")
+                    .amount(Money.ofPaise(paise(random, debit ? 2_500_000 : 3_000_000)))
+                    .date(FIRST_DAY.plusDays(i / 20))
+                    .description(debit ? "Bill Invoice #" + (1001 + i) : "Payment Received")
+                    .invoiceNumber(debit ? 1001 + i : null)
+                    .relatedBillId(debit ? objectId(i) : null)
+                    .build());
+        }
+        return transactions;
+    }
+
+    private static long paise(SplittableRandom random, int maxPaise) {
+        return 100 + random.nextInt(maxPaise);
+    }
+
+    private static String objectId(int i) {
+        return String.format("%024x", i);
+    }
+}
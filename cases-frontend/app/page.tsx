@@ -34,15 +34,11 @@ export default function Home() {
       }
 
       try {
-        const [salesRes, paymentsRes, expensesRes] = await Promise.all([
-          axios.get(`${process.env.NEXT_PUBLIC_API_BASE_URL}/api/sales/total?${params}`),
-          axios.get(`${process.env.NEXT_PUBLIC_API_BASE_URL}/api/payments/total?${params}`),
-          axios.get(`${process.env.NEXT_PUBLIC_API_BASE_URL}/api/expenses/total?${params}`),//rollback
-        ]);
+        const res = await axios.get(`${process.env.NEXT_PUBLIC_API_BASE_URL}/api/dashboard/summary?${params}`);
 
-        setTotalSales(salesRes.data.totalSales || 0);
-        setTotalPayments(paymentsRes.data.totalPayment || 0);
-        setTotalExpenses(expensesRes.data.totalExpenses || 0);
+        setTotalSales(res.data.totalSales || 0);
+        setTotalPayments(res.data.totalPayment || 0);
+        setTotalExpenses(res.data.totalExpenses || 0);
       } catch (err) {
         console.error('Failed to fetch totals:', err);
       }
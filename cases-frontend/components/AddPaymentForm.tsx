@@ -1,7 +1,7 @@
 'use client';
 
 import axios from '@/lib/axios';
-import { ChangeEvent, FormEvent, KeyboardEvent, useEffect, useRef, useState } from 'react';
+import { ChangeEvent, FormEvent, KeyboardEvent, useRef, useState } from 'react';
 import { toast } from 'react-toastify';
 
 interface Customer {
@@ -12,7 +12,6 @@ interface Customer {
 export default function AddPaymentForm() {
   const [searchTerm, setSearchTerm] = useState<string>('');
   const [filteredCustomers, setFilteredCustomers] = useState<Customer[]>([]);
-  const [customers, setCustomers] = useState<Customer[]>([]);
   const [selectedIndex, setSelectedIndex] = useState<number>(-1);
   const [selectedCustomer, setSelectedCustomer] = useState<Customer | null>(null);
   const [amount, setAmount] = useState<string>('');
@@ -21,33 +20,28 @@ export default function AddPaymentForm() {
   const searchRef = useRef<HTMLInputElement>(null);
 
 
-  useEffect(() => {
-    const fetchCustomers = async () => {
-      try {
-        const res = await axios.get<Customer[]>('/customers'); // baseURL already set
-        setCustomers(res.data);
-      } catch (err) {
-        toast.error('Failed to load customers.');
-      }
-    };
-
-    fetchCustomers();
-  }, []);
+  // Type-ahead is answered by the server; only the latest request may update the list
+  const latestSearch = useRef('');
 
-  const handleSearchChange = (e: ChangeEvent<HTMLInputElement>) => {
+  const handleSearchChange = async (e: ChangeEvent<HTMLInputElement>) => {
     const value = e.target.value;
     setSearchTerm(value);
+    setSelectedIndex(-1);
+    latestSearch.current = value;
 
     if (value.trim() === '') {
       setFilteredCustomers([]);
       return;
     }
 
-    const filtered = customers.filter((customer) =>
-      customer.name.toLowerCase().includes(value.toLowerCase())
-    );
-    setFilteredCustomers(filtered);
-    setSelectedIndex(-1);
+    try {
+      const res = await axios.get<Customer[]>('/customers/search', { params: { q: value, limit: 10 } });
+      if (latestSearch.current === value) {
+        setFilteredCustomers(res.data);
+      }
+    } catch (err) {
+      console.error("❌ Error searching customers:", err);
+    }
   };
 
   const handleKeyDown = (e: KeyboardEvent<HTMLInputElement>) => {
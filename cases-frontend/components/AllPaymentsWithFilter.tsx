@@ -10,9 +10,7 @@ interface Payment {
     amount: number;
     date: string;
     description?: string;
-    customer: {
-        name: string;
-    };
+    customerName?: string;
 }
 
 const AllPaymentsWithFilter = () => {
@@ -85,7 +83,7 @@ const AllPaymentsWithFilter = () => {
                 <tbody>
                     {payments.map((payment) => (
                         <tr key={payment.id}>
-                            <td className="border px-4 py-2">{payment.customer?.name || 'N/A'}</td>
+                            <td className="border px-4 py-2">{payment.customerName || 'N/A'}</td>
                             <td className="border px-4 py-2 text-blue-500 hover:underline cursor-pointer">
                                 <Link href={`/edit-payment/${payment.id}`}>
                                     ₹{payment.amount}
@@ -1,7 +1,7 @@
 'use client';
 
 import axios from '@/lib/axios';
-import { ChangeEvent, FormEvent, KeyboardEvent, useEffect, useState } from 'react';
+import { ChangeEvent, FormEvent, KeyboardEvent, useEffect, useRef, useState } from 'react';
 import { toast } from 'react-toastify';
 
 interface Item {
@@ -20,7 +20,6 @@ interface Customer {
 export default function CreateBillForm() {
   const [billDate, setBillDate] = useState<string>(new Date().toISOString().split('T')[0]);
   const [invoiceNumber, setInvoiceNumber] = useState<number>(1);
-  const [customers, setCustomers] = useState<Customer[]>([]);
   const [customerSearch, setCustomerSearch] = useState<string>('');
   const [filteredCustomers, setFilteredCustomers] = useState<Customer[]>([]);
   const [selectedCustomer, setSelectedCustomer] = useState<Customer | null>(null);
@@ -42,34 +41,28 @@ export default function CreateBillForm() {
     fetchNextInvoiceNumber();
   }, []);
 
-  useEffect(() => {
-    fetchCustomers();
-  }, []);
-
-
-  const fetchCustomers = async () => {
-    try {
-      const res = await axios.get<Customer[]>('/customers');
-      setCustomers(res.data);
-    } catch (error) {
-      console.error("❌ Error fetching customers:", error);
-    }
-  };
-
+  // Type-ahead is answered by the server; only the latest request may update the list
+  const latestSearch = useRef('');
 
-  const handleCustomerSearch = (e: ChangeEvent<HTMLInputElement>) => {
+  const handleCustomerSearch = async (e: ChangeEvent<HTMLInputElement>) => {
     const term = e.target.value;
     setCustomerSearch(term);
     setSelectedIndex(-1);
+    latestSearch.current = term;
 
     if (!term.trim()) {
       setFilteredCustomers([]);
       return;
     }
 
-    setFilteredCustomers(
-      customers.filter((c) => c.name.toLowerCase().includes(term.toLowerCase()))
-    );
+    try {
+      const res = await axios.get<Customer[]>('/customers/search', { params: { q: term, limit: 10 } });
+      if (latestSearch.current === term) {
+        setFilteredCustomers(res.data);
+      }
+    } catch (error) {
+      console.error("❌ Error searching customers:", error);
+    }
   };
 
   const handleCustomerKeyDown = (e: KeyboardEvent<HTMLInputElement>) => {
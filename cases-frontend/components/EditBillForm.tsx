@@ -1,7 +1,7 @@
 'use client';
 
 import axios from '@/lib/axios';
-import { ChangeEvent, KeyboardEvent, useEffect, useState } from 'react';
+import { ChangeEvent, KeyboardEvent, useEffect, useRef, useState } from 'react';
 import { toast } from 'react-toastify';
 
 interface Item {
@@ -40,53 +40,14 @@ export default function EditBillForm({ billId, onClose, onUpdated }: EditBillFor
   const [customer, setCustomer] = useState<Customer | null>(null);
   const [dueDate, setDueDate] = useState<string>('');
   const [totalQty, setTotalQty] = useState<number>(0);
-  const [allCustomers, setAllCustomers] = useState<Customer[]>([]);
   const [customerSearch, setCustomerSearch] = useState('');
   const [filteredCustomers, setFilteredCustomers] = useState<Customer[]>([]);
-  const [selectedCustomer, setSelectedCustomer] = useState<Customer | null>(null);
   const [selectedIndex, setSelectedIndex] = useState<number>(-1);
-  const [customers, setCustomers] = useState<Customer[]>([]);
   const [grandTotal, setGrandTotal] = useState(0);
 
 
-  useEffect(() => {
-    fetchCustomers();
-  }, []);
-
-  const fetchCustomers = async () => {
-    try {
-      const res = await axios.get<Customer[]>('/customers');
-      setCustomers(res.data);
-    } catch (error) {
-      console.error("❌ Error fetching customers:", error);
-    }
-  };
-
-
-  useEffect(() => {
-    const matched = allCustomers.find(
-      (cust) => cust.name.toLowerCase() === customerSearch.toLowerCase()
-    );
-
-    if (matched) {
-      setCustomer(matched);
-    } else {
-      setCustomer(null); // Clear if no exact match
-    }
-  }, [customerSearch, allCustomers]);
-
-
-  useEffect(() => {
-    if (customerSearch.trim() === '') {
-      setFilteredCustomers([]);
-      return;
-    }
-
-    const filtered = allCustomers.filter((cust) =>
-      cust.name.toLowerCase().includes(customerSearch.toLowerCase())
-    );
-    setFilteredCustomers(filtered);
-  }, [customerSearch, allCustomers]);
+  // Type-ahead is answered by the server; only the latest request may update the list
+  const latestSearch = useRef('');
 
   useEffect(() => {
     const fetchBill = async () => {
@@ -106,17 +67,8 @@ export default function EditBillForm({ billId, onClose, onUpdated }: EditBillFor
         console.error('Failed to fetch bill or customer:', error);
       }
     };
-    const fetchCustomers = async () => {
-      try {
-        const res = await axios.get(`${process.env.NEXT_PUBLIC_API_BASE_URL}/api/customers`);
-        setAllCustomers(res.data);
-      } catch (error) {
-        console.error("Failed to fetch all customers:", error);
-      }
-    };
 
     fetchBill();
-    fetchCustomers();
   }, [billId]);
 
   useEffect(() => {
@@ -131,19 +83,31 @@ export default function EditBillForm({ billId, onClose, onUpdated }: EditBillFor
     setGrandTotal(Math.round(grand));
   }, [items]);
 
-  const handleCustomerSearch = (e: ChangeEvent<HTMLInputElement>) => {
+  const handleCustomerSearch = async (e: ChangeEvent<HTMLInputElement>) => {
     const term = e.target.value;
     setCustomerSearch(term);
     setSelectedIndex(-1);
+    setCustomer(null);
+    latestSearch.current = term;
 
     if (!term.trim()) {
       setFilteredCustomers([]);
       return;
     }
 
-    setFilteredCustomers(
-      customers.filter((c) => c.name.toLowerCase().includes(term.toLowerCase()))
-    );
+    try {
+      const res = await axios.get<Customer[]>('/customers/search', { params: { q: term, limit: 10 } });
+      if (latestSearch.current === term) {
+        setFilteredCustomers(res.data);
+        // Typing a customer's full name still selects them
+        const matched = res.data.find((cust) => cust.name.toLowerCase() === term.toLowerCase());
+        if (matched) {
+          setCustomer(matched);
+        }
+      }
+    } catch (error) {
+      console.error("❌ Error searching customers:", error);
+    }
   };
   const handleCustomerKeyDown = (e: KeyboardEvent<HTMLInputElement>) => {
     if (e.key === 'ArrowDown') {
@@ -169,7 +133,7 @@ export default function EditBillForm({ billId, onClose, onUpdated }: EditBillFor
   };
 
   const handleSelectCustomer = (customer: Customer) => {
-    setSelectedCustomer(customer);
+    setCustomer(customer);
     setCustomerSearch(customer.name);
     setFilteredCustomers([]);
   };
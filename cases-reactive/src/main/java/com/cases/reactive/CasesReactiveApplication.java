@@ -0,0 +1,14 @@
+package com.cases.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// Picks up the backend's generated DTO mappers alongside this module's beans
+@SpringBootApplication(scanBasePackages = { "com.cases.reactive", "com.cases.mapper" })
+public class CasesReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CasesReactiveApplication.class, args);
+	}
+
+}
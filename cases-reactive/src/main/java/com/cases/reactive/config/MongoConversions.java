@@ -0,0 +1,16 @@
+package com.cases.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import com.cases.model.Money;
+
+@Configuration
+public class MongoConversions {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(Money.converters());
+    }
+}
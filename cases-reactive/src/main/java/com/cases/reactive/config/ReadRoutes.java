@@ -0,0 +1,50 @@
+package com.cases.reactive.config;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.cases.reactive.handler.BillHandler;
+import com.cases.reactive.handler.CustomerHandler;
+import com.cases.reactive.handler.PaymentHandler;
+
+/**
+ * Read-only /api/v2 routes. Every response is an NDJSON stream fed straight
+ * from a Mongo cursor, so a slow client only holds back its own cursor.
+ * Writes stay on the blocking /api endpoints of the backend.
+ */
+@Configuration
+public class ReadRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> v2Routes(CustomerHandler customers, BillHandler bills,
+            PaymentHandler payments) {
+        return route(GET("/api/v2/customers"), customers::list)
+                .andRoute(GET("/api/v2/customers/{id}/statement"), customers::statement)
+                .andRoute(GET("/api/v2/bills"), bills::list)
+                .andRoute(GET("/api/v2/payments"), payments::list);
+    }
+
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(List.of("https://cases-demo.vercel.app", "http://localhost:3000"));
+        config.setAllowedMethods(List.of("GET"));
+        config.setAllowedHeaders(List.of("*"));
+        config.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+
+        return new CorsWebFilter(source);
+    }
+}
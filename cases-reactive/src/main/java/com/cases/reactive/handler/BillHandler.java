@@ -0,0 +1,29 @@
+package com.cases.reactive.handler;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.cases.model.Bill;
+import com.cases.reactive.repository.ReactiveBillRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class BillHandler {
+
+    private final ReactiveBillRepository billRepository;
+
+    // Newest invoice first, optionally limited to a date range
+    public Mono<ServerResponse> list(ServerRequest request) {
+        Flux<Bill> bills = DateRange.from(request)
+                .map(range -> billRepository.findInRangeNewestFirst(range.start(), range.end()))
+                .orElseGet(billRepository::findAllNewestFirst);
+
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(bills, Bill.class);
+    }
+}
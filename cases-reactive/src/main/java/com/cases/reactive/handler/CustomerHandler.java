@@ -0,0 +1,106 @@
+package com.cases.reactive.handler;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.cases.dto.StatementTransactionDTO;
+import com.cases.mapper.StatementMapper;
+import com.cases.model.BalanceCheckpoint;
+import com.cases.model.Customer;
+import com.cases.model.Money;
+import com.cases.model.Transaction;
+import com.cases.reactive.repository.ReactiveCustomerRepository;
+import com.cases.reactive.repository.ReactiveTransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class CustomerHandler {
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final StatementMapper statementMapper;
+
+    public Mono<ServerResponse> list(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(customerRepository.findAllByOrderByNameAsc(), Customer.class);
+    }
+
+    // Statement lines with a running balance, emitted as the cursor delivers them
+    public Mono<ServerResponse> statement(ServerRequest request) {
+        String customerId = request.pathVariable("id");
+        Optional<DateRange> range = DateRange.from(request);
+
+        Mono<Long> opening = range.map(r -> openingBalance(customerId, r.start())).orElse(Mono.just(0L));
+        Flux<Transaction> transactions = range
+                .map(r -> transactionRepository.findStatementInRange(customerId, r.start(), r.end()))
+                .orElseGet(() -> transactionRepository.findStatement(customerId));
+
+        Flux<StatementTransactionDTO> lines = opening.flatMapMany(openingBalance -> {
+            long[] balance = { openingBalance };
+            return transactions.map(txn -> {
+                long amount = txn.getAmount().paise();
+                balance[0] += StatementTransactionDTO.isDebit(txn) ? -amount : amount;
+                return statementMapper.toEntry(txn, Money.ofPaise(balance[0]));
+            });
+        });
+
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(lines, StatementTransactionDTO.class);
+    }
+
+    // Last closed-month checkpoint written by the backend, plus the rows between it and the start date.
+    // Read-only: missing checkpoints are left for the backend to build.
+    // In paise
+    private Mono<Long> openingBalance(String customerId, LocalDate start) {
+        Query latest = Query.query(Criteria.where("customerId").is(customerId)
+                .and("period").lt(YearMonth.from(start).toString()))
+                .with(Sort.by(Sort.Direction.DESC, "period"))
+                .limit(1);
+
+        return mongoTemplate.findOne(latest, BalanceCheckpoint.class)
+                .map(checkpoint -> new Carried(checkpoint.getClosingBalance().paise(),
+                        YearMonth.parse(checkpoint.getPeriod()).plusMonths(1).atDay(1)))
+                .defaultIfEmpty(new Carried(0, null))
+                .flatMap(carried -> net(customerId, carried.from(), start).map(net -> carried.balance() + net));
+    }
+
+    private record Carried(long balance, LocalDate from) {
+    }
+
+    // Credits minus debits in paise for from <= date < to (from may be null)
+    private Mono<Long> net(String customerId, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("customerId").is(customerId);
+        criteria = from != null ? criteria.and("date").gte(from).lt(to) : criteria.and("date").lt(to);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group().sum(ConditionalOperators.when(Criteria.where("type").is("debit"))
+                        .then(ArithmeticOperators.Multiply.valueOf("amount").multiplyBy(-1))
+                        .otherwiseValueOf("amount"))
+                        .as("net"));
+
+        return mongoTemplate.aggregate(aggregation, Transaction.class, Document.class)
+                .next()
+                .map(row -> ((Number) row.get("net")).longValue())
+                .defaultIfEmpty(0L);
+    }
+}
@@ -0,0 +1,20 @@
+package com.cases.reactive.handler;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+// Optional startDate/endDate query parameters; end is made exclusive (endDate + 1)
+record DateRange(LocalDate start, LocalDate end) {
+
+    static Optional<DateRange> from(ServerRequest request) {
+        Optional<String> startDate = request.queryParam("startDate").filter(s -> !s.isBlank());
+        Optional<String> endDate = request.queryParam("endDate").filter(s -> !s.isBlank());
+
+        if (startDate.isEmpty() || endDate.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new DateRange(LocalDate.parse(startDate.get()), LocalDate.parse(endDate.get()).plusDays(1)));
+    }
+}
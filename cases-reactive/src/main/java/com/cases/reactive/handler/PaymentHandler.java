@@ -0,0 +1,29 @@
+package com.cases.reactive.handler;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.cases.model.Transaction;
+import com.cases.reactive.repository.ReactiveTransactionRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentHandler {
+
+    private final ReactiveTransactionRepository transactionRepository;
+
+    // Credit transactions, newest first, optionally limited to a date range
+    public Mono<ServerResponse> list(ServerRequest request) {
+        Flux<Transaction> payments = DateRange.from(request)
+                .map(range -> transactionRepository.findByTypeInRangeNewestFirst("credit", range.start(), range.end()))
+                .orElseGet(() -> transactionRepository.findByTypeNewestFirst("credit"));
+
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(payments, Transaction.class);
+    }
+}
@@ -0,0 +1,24 @@
+package com.cases.reactive.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.cases.model.Bill;
+import com.cases.repository.BillRepository;
+
+import reactor.core.publisher.Flux;
+
+// Reads only: every query leaves out the customer DBRef, which the reactive driver cannot resolve
+public interface ReactiveBillRepository extends ReactiveMongoRepository<Bill, String> {
+
+    String LEAN_FIELDS = BillRepository.LEAN_FIELDS;
+
+    @Query(value = "{}", fields = LEAN_FIELDS, sort = "{ 'invoiceNumber': -1 }")
+    Flux<Bill> findAllNewestFirst();
+
+    // start inclusive, end exclusive
+    @Query(value = "{ 'date': { '$gte': ?0, '$lt': ?1 } }", fields = LEAN_FIELDS, sort = "{ 'invoiceNumber': -1 }")
+    Flux<Bill> findInRangeNewestFirst(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,11 @@
+package com.cases.reactive.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.cases.model.Customer;
+
+import reactor.core.publisher.Flux;
+
+public interface ReactiveCustomerRepository extends ReactiveMongoRepository<Customer, String> {
+    Flux<Customer> findAllByOrderByNameAsc();
+}
@@ -0,0 +1,32 @@
+package com.cases.reactive.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.cases.model.Transaction;
+import com.cases.repository.TransactionRepository;
+
+import reactor.core.publisher.Flux;
+
+// Reads only: every query leaves out the DBRefs, which the reactive driver cannot resolve
+public interface ReactiveTransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+
+    String LEAN_FIELDS = TransactionRepository.LEAN_FIELDS;
+
+    @Query(value = "{ 'type': ?0 }", fields = LEAN_FIELDS, sort = "{ 'date': -1, '_id': -1 }")
+    Flux<Transaction> findByTypeNewestFirst(String type);
+
+    // start inclusive, end exclusive
+    @Query(value = "{ 'type': ?0, 'date': { '$gte': ?1, '$lt': ?2 } }", fields = LEAN_FIELDS,
+            sort = "{ 'date': -1, '_id': -1 }")
+    Flux<Transaction> findByTypeInRangeNewestFirst(String type, LocalDate start, LocalDate end);
+
+    @Query(value = "{ 'customerId': ?0 }", fields = LEAN_FIELDS, sort = "{ 'date': 1, '_id': 1 }")
+    Flux<Transaction> findStatement(String customerId);
+
+    @Query(value = "{ 'customerId': ?0, 'date': { '$gte': ?1, '$lt': ?2 } }", fields = LEAN_FIELDS,
+            sort = "{ 'date': 1, '_id': 1 }")
+    Flux<Transaction> findStatementInRange(String customerId, LocalDate start, LocalDate end);
+}
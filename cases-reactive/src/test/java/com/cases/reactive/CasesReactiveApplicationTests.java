@@ -0,0 +1,13 @@
+package com.cases.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class CasesReactiveApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}